@@ -0,0 +1,235 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the properties of an OptiFine animation file from its token table. Known keys are dispatched
+ * into slots by their length and first character, per-frame keys are kept separately from all other
+ * properties, and all other retained properties are projected from the table without creating their keys
+ * or values.
+ * @author soir20
+ */
+final class AnimationProperties {
+    private static final Key[] KEYS = Key.values();
+    private static final String TILE_PREFIX = "tile.";
+    private static final String DURATION_PREFIX = "duration.";
+    private static final int ABSENT = -1;
+
+    private final PropertiesTokens TOKENS;
+    private final int[] SLOTS;
+    private final FrameListView.Builder FRAMES;
+    private final TokenTableView.Builder METADATA;
+
+    /**
+     * Collects the animation properties in a token table.
+     * @param tokens    all key-value pairs in the animation file, in order
+     * @param mode      determines which properties are retained besides known keys
+     * @param symbols   table of canonical keys for the retained properties
+     * @param valuePool pool of shared values for the retained properties
+     */
+    public AnimationProperties(PropertiesTokens tokens, PropertiesMetadataParser.AnimationMode mode,
+                               KeySymbols symbols, ValuePool valuePool) {
+        TOKENS = requireNonNull(tokens, "Tokens cannot be null");
+        requireNonNull(mode, "Mode cannot be null");
+        SLOTS = new int[KEYS.length];
+        Arrays.fill(SLOTS, ABSENT);
+        FRAMES = new FrameListView.Builder();
+        METADATA = new TokenTableView.Builder(tokens, symbols, valuePool);
+
+        for (int entry = 0; entry < tokens.size(); entry++) {
+            put(entry, mode);
+        }
+
+        // Properties renamed from OptiFine's keys take precedence over other properties with the same key
+        for (Key key : KEYS) {
+            int entry = SLOTS[key.ordinal()];
+            if (entry != ABSENT && key.METADATA_NAME != null) {
+                METADATA.putEntry(key.METADATA_NAME, entry);
+            }
+        }
+    }
+
+    /**
+     * Gets the path of the texture containing the animation frames.
+     * @return path of the frame texture or {@link Optional#empty()} if there is none
+     */
+    public Optional<String> from() {
+        return slotValue(Key.FROM);
+    }
+
+    /**
+     * Gets the path of the texture that the animation is applied to.
+     * @return path of the destination texture or {@link Optional#empty()} if there is none
+     */
+    public Optional<String> to() {
+        return slotValue(Key.TO);
+    }
+
+    /**
+     * Builds a view of all frames defined by per-frame properties (tile.N and duration.N).
+     * @return view of all frames or {@link Optional#empty()} if there are no per-frame properties
+     */
+    public Optional<FrameListView> frames() {
+        return FRAMES.build();
+    }
+
+    /**
+     * Gets a builder with all retained properties, using the keys that MoreMcmeta expects. Per-frame
+     * properties are not included. More properties may be added to the builder before the view is built.
+     * @return builder with all retained properties
+     */
+    public TokenTableView.Builder metadata() {
+        return METADATA;
+    }
+
+    /**
+     * Adds a property from the token table. If a property with the same key was already added, it is replaced.
+     * @param entry     entry of the property in the table
+     * @param mode      determines which properties are retained besides known keys
+     */
+    private void put(int entry, PropertiesMetadataParser.AnimationMode mode) {
+        if (mode == PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES) {
+            METADATA.putEntry(entry);
+        }
+
+        Key knownKey = knownKey(entry);
+        if (knownKey != null) {
+            SLOTS[knownKey.ordinal()] = entry;
+        } else if (!putFrameProperty(entry) && mode == PropertiesMetadataParser.AnimationMode.SCHEMA_RETAIN_UNKNOWN) {
+            METADATA.putEntry(entry);
+        }
+    }
+
+    /**
+     * Finds the known key that an entry has. The key's length and first character select the only known
+     * key it could be, so at most one key is compared in place.
+     * @param entry     entry of the property in the table
+     * @return known key or null if the entry's key is not known
+     */
+    private Key knownKey(int entry) {
+        int keyLength = TOKENS.keyLength(entry);
+        char firstChar = keyLength == 0 ? 0 : TOKENS.keyCharAt(entry, 0);
+        Key candidate = switch (keyLength) {
+            case 1 -> switch (firstChar) {
+                case 'x' -> Key.X;
+                case 'y' -> Key.Y;
+                case 'w' -> Key.WIDTH;
+                case 'h' -> Key.HEIGHT;
+                default -> null;
+            };
+            case 2 -> Key.TO;
+            case 4 -> firstChar == 'f' ? Key.FROM : Key.SKIP;
+            case 8 -> Key.FRAME_TIME;
+            case 11 -> firstChar == 'i' ? Key.INTERPOLATE : Key.SMOOTH_ALPHA;
+            default -> null;
+        };
+
+        return candidate != null && TOKENS.keyEquals(entry, candidate.NAME) ? candidate : null;
+    }
+
+    /**
+     * Gets the value of a known key.
+     * @param key       known key to retrieve
+     * @return value of the key or {@link Optional#empty()} if the file does not have the key
+     */
+    private Optional<String> slotValue(Key key) {
+        int entry = SLOTS[key.ordinal()];
+        return entry == ABSENT ? Optional.empty() : Optional.of(TOKENS.value(entry));
+    }
+
+    /**
+     * Adds a property to the frame list if it is a tile.N or duration.N key for an individual frame.
+     * @param entry     entry of the property in the table
+     * @return true if the property belongs to an individual frame, false otherwise
+     */
+    private boolean putFrameProperty(int entry) {
+        boolean isTile = TOKENS.keyStartsWith(entry, TILE_PREFIX);
+        if (!isTile && !TOKENS.keyStartsWith(entry, DURATION_PREFIX)) {
+            return false;
+        }
+
+        int indexStart = isTile ? TILE_PREFIX.length() : DURATION_PREFIX.length();
+        int keyLength = TOKENS.keyLength(entry);
+        if (indexStart == keyLength) {
+            return false;
+        }
+
+        long frame = 0;
+        for (int index = indexStart; index < keyLength; index++) {
+            char c = TOKENS.keyCharAt(entry, index);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+
+            // The number of frames must fit in an int, so the largest frame index is one less than the maximum
+            frame = frame * 10 + (c - '0');
+            if (frame >= Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+
+        /* An index with leading zeros still counts towards the number of frames, but its value is
+           never used because it is always looked up by the index without leading zeros. */
+        boolean hasLeadingZeros = TOKENS.keyCharAt(entry, indexStart) == '0' && keyLength - indexStart > 1;
+        if (hasLeadingZeros) {
+            FRAMES.extend((int) frame);
+        } else if (isTile) {
+            FRAMES.putTile((int) frame, TOKENS, entry);
+        } else {
+            FRAMES.putDuration((int) frame, TOKENS, entry);
+        }
+
+        return true;
+    }
+
+    /**
+     * Known keys in OptiFine animation files.
+     * @author soir20
+     */
+    private enum Key {
+        FROM("from", null),
+        TO("to", null),
+        X("x", "x"),
+        Y("y", "y"),
+        WIDTH("w", "width"),
+        HEIGHT("h", "height"),
+        FRAME_TIME("duration", "frametime"),
+        INTERPOLATE("interpolate", "interpolate"),
+        SKIP("skip", "skip"),
+        SMOOTH_ALPHA("smoothAlpha", "smoothAlpha");
+
+        private final String NAME;
+        private final String METADATA_NAME;
+
+        /**
+         * Creates a new known key.
+         * @param name              name of the key in the .properties file
+         * @param metadataName      name of the key in the metadata or null if the key is not part of the metadata
+         */
+        Key(String name, String metadataName) {
+            NAME = name;
+            METADATA_NAME = metadataName;
+        }
+    }
+
+}
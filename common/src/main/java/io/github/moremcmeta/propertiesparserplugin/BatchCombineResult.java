@@ -0,0 +1,65 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Results of combining the metadata of many textures at once. Every texture either has a combined view or
+ * the error that prevented its metadata from being combined. Both are ordered by texture location.
+ * @author soir20
+ */
+public final class BatchCombineResult {
+    private final Map<ResourceLocation, MetadataView> VIEWS;
+    private final Map<ResourceLocation, InvalidMetadataException> ERRORS;
+
+    /**
+     * Creates a new batch result.
+     * @param views         combined view of each texture whose metadata was combined
+     * @param errors        error for each texture whose metadata could not be combined
+     */
+    BatchCombineResult(Map<ResourceLocation, MetadataView> views,
+                       Map<ResourceLocation, InvalidMetadataException> errors) {
+        VIEWS = requireNonNull(views, "Views cannot be null");
+        ERRORS = requireNonNull(errors, "Errors cannot be null");
+    }
+
+    /**
+     * Gets the combined view of each texture whose metadata was combined, ordered by texture location.
+     * @return combined view of each texture
+     */
+    public Map<ResourceLocation, MetadataView> views() {
+        return VIEWS;
+    }
+
+    /**
+     * Gets the error for each texture whose metadata could not be combined, such as conflicting sections,
+     * ordered by texture location.
+     * @return error for each texture that failed
+     */
+    public Map<ResourceLocation, InvalidMetadataException> errors() {
+        return ERRORS;
+    }
+
+}
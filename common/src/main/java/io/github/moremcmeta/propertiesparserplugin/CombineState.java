@@ -0,0 +1,300 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Everything needed to combine the metadata of one texture, kept so that the metadata can be combined again
+ * after only some of the contributing files changed. Contributing locations are kept in sorted order, with the
+ * animation parts that each file contributes and the owner of every section, so files that did not change are
+ * never read again. The views themselves always come from the metadata being combined. States are immutable,
+ * and updating a state creates a new one.
+ * @author soir20
+ */
+final class CombineState {
+    private static final PropertiesMetadataView.Value[] NO_PARTS = new PropertiesMetadataView.Value[0];
+
+    private final ResourceLocation[] LOCATIONS;
+    private final PropertiesMetadataView.Value[][] PARTS;
+    private final Map<String, ResourceLocation> SECTION_OWNERS;
+
+    /**
+     * Creates a new state.
+     * @param locations         locations of all contributing files, in sorted order
+     * @param parts             animation parts contributed by each file
+     * @param sectionOwners     location of the file that contributes each section other than the animation,
+     *                          or null if the state cannot be updated
+     */
+    private CombineState(ResourceLocation[] locations, PropertiesMetadataView.Value[][] parts,
+                         Map<String, ResourceLocation> sectionOwners) {
+        LOCATIONS = locations;
+        PARTS = parts;
+        SECTION_OWNERS = sectionOwners;
+    }
+
+    /**
+     * Reads all contributing views to create a new state.
+     * @param metadataByLocation    view of each contributing file
+     * @return state for the views
+     * @throws InvalidMetadataException if two views contribute the same section
+     */
+    public static CombineState build(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation)
+            throws InvalidMetadataException {
+        return build(metadataByLocation, new HashMap<>(), true);
+    }
+
+    /**
+     * Reads all contributing views to create a new state that is only used to combine them once. Sections are
+     * checked for conflicts in the given scratch map, which is cleared first, so one map can be reused to combine
+     * many textures. The state does not keep the map, so updating it reads all views again.
+     * @param metadataByLocation    view of each contributing file
+     * @param scratchOwners         map to find section conflicts in, whose previous contents are discarded
+     * @return state for the views
+     * @throws InvalidMetadataException if two views contribute the same section
+     */
+    public static CombineState buildOnce(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                                         Map<String, ResourceLocation> scratchOwners)
+            throws InvalidMetadataException {
+        scratchOwners.clear();
+        return build(metadataByLocation, scratchOwners, false);
+    }
+
+    /**
+     * Reads all contributing views to create a new state.
+     * @param metadataByLocation    view of each contributing file
+     * @param sectionOwners         empty map to record the owner of each section in
+     * @param updatable             whether the state keeps the section owners so that it can be updated
+     * @return state for the views
+     * @throws InvalidMetadataException if two views contribute the same section
+     */
+    private static CombineState build(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                                      Map<String, ResourceLocation> sectionOwners, boolean updatable)
+            throws InvalidMetadataException {
+        ResourceLocation[] locations = metadataByLocation.keySet().toArray(new ResourceLocation[0]);
+        Arrays.sort(locations);
+
+        PropertiesMetadataView.Value[][] parts = new PropertiesMetadataView.Value[locations.length][];
+
+        for (int index = 0; index < locations.length; index++) {
+            MetadataView view = metadataByLocation.get(locations[index]);
+            addSections(sectionOwners, locations[index], view);
+            parts[index] = readParts(view);
+        }
+
+        return new CombineState(locations, parts, updatable ? sectionOwners : null);
+    }
+
+    /**
+     * Creates a new state after some contributing views changed. Only the changed views are read. If the
+     * contributing locations changed in a way that the changed locations do not explain, or this state was only
+     * built to combine the views once, all views are read.
+     * @param metadataByLocation    view of each contributing file after the change
+     * @param changedLocations      locations of files that were added, removed, or changed
+     * @return state for the views after the change
+     * @throws InvalidMetadataException if two views contribute the same section
+     */
+    public CombineState update(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                               Set<? extends ResourceLocation> changedLocations) throws InvalidMetadataException {
+        if (SECTION_OWNERS == null || !isExplainedBy(metadataByLocation, changedLocations)) {
+            return build(metadataByLocation);
+        }
+
+        // Remove the sections of every changed view before adding them back so that moved sections do not conflict
+        Map<String, ResourceLocation> sectionOwners = new HashMap<>(SECTION_OWNERS);
+        sectionOwners.values().removeIf(changedLocations::contains);
+
+        ResourceLocation[] addedLocations = changedLocations.stream()
+                .filter(metadataByLocation::containsKey)
+                .sorted()
+                .toArray(ResourceLocation[]::new);
+        for (ResourceLocation location : addedLocations) {
+            addSections(sectionOwners, location, metadataByLocation.get(location));
+        }
+
+        // Merge the unchanged locations, which are already sorted, with the sorted changed locations
+        ResourceLocation[] locations = new ResourceLocation[metadataByLocation.size()];
+        PropertiesMetadataView.Value[][] parts = new PropertiesMetadataView.Value[locations.length][];
+        int oldIndex = 0;
+        int addedIndex = 0;
+
+        for (int index = 0; index < locations.length; index++) {
+            while (oldIndex < LOCATIONS.length && changedLocations.contains(LOCATIONS[oldIndex])) {
+                oldIndex++;
+            }
+
+            boolean takeOld = addedIndex == addedLocations.length || (oldIndex < LOCATIONS.length
+                    && LOCATIONS[oldIndex].compareTo(addedLocations[addedIndex]) < 0);
+            if (takeOld) {
+                locations[index] = LOCATIONS[oldIndex];
+                parts[index] = PARTS[oldIndex];
+                oldIndex++;
+            } else {
+                ResourceLocation location = addedLocations[addedIndex++];
+                locations[index] = location;
+                parts[index] = readParts(metadataByLocation.get(location));
+            }
+        }
+
+        return new CombineState(locations, parts, sectionOwners);
+    }
+
+    /**
+     * Gets all animation parts, ordered first by the iteration order of the given map and then by their
+     * order in each view.
+     * @param metadataByLocation    view of each contributing file, which must have the same locations as this state
+     * @return all animation parts
+     * @throws IllegalArgumentException if the given locations are not the same as the locations in this state
+     */
+    public PropertiesMetadataView.Value[] parts(Map<? extends ResourceLocation, ? extends MetadataView>
+                                                        metadataByLocation) {
+        requireSameSize(metadataByLocation);
+
+        int totalParts = 0;
+        for (PropertiesMetadataView.Value[] viewParts : PARTS) {
+            totalParts += viewParts.length;
+        }
+
+        PropertiesMetadataView.Value[] allParts = new PropertiesMetadataView.Value[totalParts];
+        int partCount = 0;
+        for (ResourceLocation location : metadataByLocation.keySet()) {
+            int index = Arrays.binarySearch(LOCATIONS, location);
+            if (index < 0) {
+                throw new IllegalArgumentException("Location " + location + " was not combined before");
+            }
+
+            PropertiesMetadataView.Value[] viewParts = PARTS[index];
+            System.arraycopy(viewParts, 0, allParts, partCount, viewParts.length);
+            partCount += viewParts.length;
+        }
+
+        return allParts;
+    }
+
+    /**
+     * Gets the view of each contributing file, in order of their locations, after the given number of
+     * empty slots.
+     * @param metadataByLocation    view of each contributing file, which must have the same locations as this state
+     * @param offset                number of empty slots before the first view
+     * @return all contributing views
+     * @throws IllegalArgumentException if the given locations are not the same as the locations in this state
+     */
+    public MetadataView[] sortedViews(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                                      int offset) {
+        requireSameSize(metadataByLocation);
+
+        MetadataView[] views = new MetadataView[offset + LOCATIONS.length];
+        for (int index = 0; index < LOCATIONS.length; index++) {
+            MetadataView view = metadataByLocation.get(LOCATIONS[index]);
+            if (view == null) {
+                throw new IllegalArgumentException("Missing metadata for " + LOCATIONS[index]);
+            }
+
+            views[offset + index] = view;
+        }
+
+        return views;
+    }
+
+    /**
+     * Checks that there is a view for as many locations as there are in this state. Together with finding
+     * each location, this ensures the views have the same locations as this state.
+     * @param metadataByLocation    view of each contributing file
+     * @throws IllegalArgumentException if the number of views is not the number of locations in this state
+     */
+    private void requireSameSize(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation) {
+        if (metadataByLocation.size() != LOCATIONS.length) {
+            throw new IllegalArgumentException(String.format("Expected metadata for %s locations but got %s",
+                    LOCATIONS.length, metadataByLocation.size()));
+        }
+    }
+
+    /**
+     * Checks whether every difference between the locations in this state and the given locations is
+     * a changed location.
+     * @param metadataByLocation    view of each contributing file after the change
+     * @param changedLocations      locations of files that were added, removed, or changed
+     * @return true if the changed locations explain all differences, false otherwise
+     */
+    private boolean isExplainedBy(Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                                  Set<? extends ResourceLocation> changedLocations) {
+        for (ResourceLocation location : LOCATIONS) {
+            if (!changedLocations.contains(location) && !metadataByLocation.containsKey(location)) {
+                return false;
+            }
+        }
+
+        for (ResourceLocation location : metadataByLocation.keySet()) {
+            if (!changedLocations.contains(location) && Arrays.binarySearch(LOCATIONS, location) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the owner of each section in a view, other than the animation section.
+     * @param sectionOwners     owner of each section so far
+     * @param location          location of the view
+     * @param view              view whose sections to add
+     * @throws InvalidMetadataException if another view already contributes one of the sections
+     */
+    private static void addSections(Map<String, ResourceLocation> sectionOwners, ResourceLocation location,
+                                    MetadataView view) throws InvalidMetadataException {
+        for (String section : view.keys()) {
+            if (!section.equals(PropertiesMetadataParser.ANIMATION_SECTION)
+                    && sectionOwners.putIfAbsent(section, location) != null) {
+                throw new InvalidMetadataException("Conflicting key " + section + " provided by two metadata files");
+            }
+        }
+    }
+
+    /**
+     * Reads the animation parts that a view contributes.
+     * @param view      view to read
+     * @return animation parts in the view
+     */
+    static PropertiesMetadataView.Value[] readParts(MetadataView view) {
+        Optional<MetadataView> partsView = view.subView(PropertiesMetadataParser.ANIMATION_SECTION)
+                .flatMap((animationView) -> animationView.subView(PropertiesMetadataParser.PARTS_KEY));
+        if (partsView.isEmpty() || partsView.get().size() == 0) {
+            return NO_PARTS;
+        }
+
+        PropertiesMetadataView.Value[] parts = new PropertiesMetadataView.Value[partsView.get().size()];
+        int partCount = 0;
+        for (int index = 0; index < parts.length; index++) {
+            Optional<MetadataView> part = partsView.get().subView(index);
+            if (part.isPresent()) {
+                parts[partCount++] = new PropertiesMetadataView.Value(part.get());
+            }
+        }
+
+        return partCount == parts.length ? parts : Arrays.copyOf(parts, partCount);
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.gson.JsonParseException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
+import net.minecraft.resources.ResourceLocation;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded cache of default metadata files, keyed by the pack that provides each file and the file's location.
+ * Packs are compared by identity and only weakly referenced, so the cache does not keep a reload's packs alive.
+ * Files from packs that were collected are removed the next time the cache is read.
+ * One cache is shared by all files read during the same resource reload, so a reload that provides new packs
+ * never sees metadata read from old ones. Once the cache holds {@link #MAX_SIZE} files, new files are read
+ * without being cached.
+ * @author soir20
+ */
+final class DefaultMetadataCache {
+    static final int MAX_SIZE = 4096;
+
+    /* Two threads that miss on the same file at the same time may both read it. Only the first file is kept,
+       and both files have the same contents, so this only costs the time to read the file twice. */
+    private final Map<Key, CachedFile> FILES;
+    private final ReferenceQueue<ResourceRepository.Pack> COLLECTED_KEYS;
+    private final LongAdder HITS;
+    private final LongAdder MISSES;
+
+    /**
+     * Creates a new, empty cache.
+     */
+    public DefaultMetadataCache() {
+        FILES = new ConcurrentHashMap<>();
+        COLLECTED_KEYS = new ReferenceQueue<>();
+        HITS = new LongAdder();
+        MISSES = new LongAdder();
+    }
+
+    /**
+     * Gets a default metadata file, reading it from its pack if it is not cached. The file is read on the
+     * calling thread, but it is not parsed until its view is first requested, which may be on another thread.
+     * @param pack                  pack that provides the file
+     * @param metadataLocation      location of the file in the pack
+     * @return the cached file or a new file if it was not cached
+     */
+    public CachedFile read(ResourceRepository.Pack pack, ResourceLocation metadataLocation) {
+        requireNonNull(pack, "Pack cannot be null");
+        requireNonNull(metadataLocation, "Metadata location cannot be null");
+
+        removeCollectedKeys();
+
+        CachedFile cachedFile = FILES.get(new Key(pack, metadataLocation, null));
+        if (cachedFile != null) {
+            HITS.increment();
+            return cachedFile;
+        }
+
+        MISSES.increment();
+        CachedFile file = new CachedFile(readContents(pack.resource(metadataLocation).orElseThrow()));
+        if (FILES.size() >= MAX_SIZE) {
+            return file;
+        }
+
+        CachedFile previousFile = FILES.putIfAbsent(new Key(pack, metadataLocation, COLLECTED_KEYS), file);
+        return previousFile != null ? previousFile : file;
+    }
+
+    /**
+     * Gets the number of reads that found a cached file.
+     * @return number of reads that did not read a file from its pack
+     */
+    public long hits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Gets the number of reads that read a file from its pack, whether or not the file was cached.
+     * @return number of reads that read a file from its pack
+     */
+    public long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Removes all files whose packs were collected, so that they no longer count toward the size of the cache.
+     */
+    private void removeCollectedKeys() {
+        Reference<? extends ResourceRepository.Pack> collectedKey;
+        while ((collectedKey = COLLECTED_KEYS.poll()) != null) {
+            FILES.remove(collectedKey);
+        }
+    }
+
+    /**
+     * Reads the contents of a default metadata file.
+     * @param metadataStream        stream of the file's contents, which is closed afterward
+     * @return contents of the file or null if the file cannot be read
+     */
+    private static byte[] readContents(InputStream metadataStream) {
+        try {
+            return IOUtils.toByteArray(metadataStream);
+        } catch (IOException err) {
+
+            // Ignore unreadable default metadata the same way as invalid default metadata
+            return null;
+
+        } finally {
+            IOUtils.closeQuietly(metadataStream);
+        }
+    }
+
+    /**
+     * Default metadata file whose contents have been read, but that is only parsed when its view is first
+     * requested. Views may be requested from several threads at once.
+     * @author soir20
+     */
+    static final class CachedFile {
+        private byte[] contents;
+        private Optional<MetadataView> view;
+
+        /**
+         * Creates a new file that has not been parsed yet.
+         * @param contents      contents of the file or null if it could not be read
+         */
+        private CachedFile(byte[] contents) {
+            this.contents = contents;
+        }
+
+        /**
+         * Gets the view of the file's metadata, parsing the file if it has not been parsed yet. The contents
+         * are handed to the view once the file is parsed.
+         * @return view of the file's metadata or empty if the file is not valid JSON
+         */
+        public synchronized Optional<MetadataView> view() {
+            if (view == null) {
+                view = parse(contents);
+                contents = null;
+            }
+
+            return view;
+        }
+
+        /**
+         * Parses the contents of a default metadata file.
+         * @param contents      contents of the file or null if it could not be read
+         * @return view of the file's metadata or empty if the file is not valid JSON
+         */
+        private static Optional<MetadataView> parse(byte[] contents) {
+            if (contents == null) {
+                return Optional.empty();
+            }
+
+            try {
+
+                /* Parsed "animation" metadata will be under the "animation" section directly, not "animation"
+                   and then the "parts" sub view. This means that the default animation will be ignored during
+                   combination if there are .properties animations. Sections that are never read are not built. */
+                return Optional.of(LazyJsonMetadataView.read(contents));
+
+            } catch (JsonParseException parseError) {
+
+                // Ignore invalid default metadata
+                return Optional.empty();
+
+            }
+        }
+    }
+
+    /**
+     * Identifies a default metadata file by the pack that provides it and its location. A key is always
+     * equal to itself, even after its pack was collected, so that it can still be removed from the cache.
+     * @author soir20
+     */
+    private static final class Key extends WeakReference<ResourceRepository.Pack> {
+        private final ResourceLocation LOCATION;
+        private final int HASH;
+
+        /**
+         * Creates a new key.
+         * @param pack          pack that provides the file
+         * @param location      location of the file in the pack
+         * @param queue         queue to add the key to once its pack is collected or null if the key is
+         *                      only used for a lookup
+         */
+        public Key(ResourceRepository.Pack pack, ResourceLocation location,
+                   ReferenceQueue<ResourceRepository.Pack> queue) {
+            super(pack, queue);
+            LOCATION = location;
+            HASH = 31 * System.identityHashCode(pack) + location.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Key otherKey)) {
+                return false;
+            }
+
+            ResourceRepository.Pack pack = get();
+            return pack != null && pack == otherKey.get() && LOCATION.equals(otherKey.LOCATION);
+        }
+
+        @Override
+        public int hashCode() {
+            return HASH;
+        }
+    }
+
+}
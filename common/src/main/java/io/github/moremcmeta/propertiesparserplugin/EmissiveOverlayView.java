@@ -0,0 +1,144 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.util.List;
+
+import static io.github.moremcmeta.propertiesparserplugin.ListMetadataView.requireNonNegative;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MetadataView} for a texture with an emissive overlay. Every overlay has the same structure: an
+ * overlay section with the location of the overlay texture and an emissive flag. The section names, keys,
+ * and flag are shared by all overlays, so each view only stores the overlay texture's location and, once it
+ * has been requested, its overlay section.
+ * @author soir20
+ */
+final class EmissiveOverlayView extends ValueMetadataView {
+    private static final String OVERLAY_SECTION = "overlay";
+    private static final String TEXTURE_KEY = "texture";
+    private static final String EMISSIVE_KEY = "emissive";
+    private static final List<String> ROOT_KEYS = List.of(OVERLAY_SECTION);
+    private static final List<String> SECTION_KEYS = List.of(TEXTURE_KEY, EMISSIVE_KEY);
+    private static final PropertiesMetadataView.Value EMISSIVE = new PropertiesMetadataView.Value("true");
+
+    private final PropertiesMetadataView.Value TEXTURE;
+
+    /* The section is created on first access. This is intentionally not synchronized: sections are
+       immutable, so a thread that sees null creates an equivalent section. */
+    private PropertiesMetadataView.Value section;
+
+    /**
+     * Creates a new view for an overlay.
+     * @param texture       location of the overlay texture
+     */
+    public EmissiveOverlayView(String texture) {
+        TEXTURE = new PropertiesMetadataView.Value(requireNonNull(texture, "Texture cannot be null"));
+    }
+
+    @Override
+    public int size() {
+        return ROOT_KEYS.size();
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return ROOT_KEYS;
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return OVERLAY_SECTION.equals(key);
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < ROOT_KEYS.size();
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(String key) {
+        return hasKey(key) ? section() : null;
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(int index) {
+        return hasKey(index) ? section() : null;
+    }
+
+    /**
+     * Gets the overlay section, creating it the first time it is requested.
+     * @return value containing the overlay section
+     */
+    private PropertiesMetadataView.Value section() {
+        PropertiesMetadataView.Value section = this.section;
+        if (section == null) {
+            section = new PropertiesMetadataView.Value(new Section());
+            this.section = section;
+        }
+
+        return section;
+    }
+
+    /**
+     * Overlay section of the view, which contains the overlay texture and the emissive flag.
+     * @author soir20
+     */
+    private final class Section extends ValueMetadataView {
+
+        @Override
+        public int size() {
+            return SECTION_KEYS.size();
+        }
+
+        @Override
+        public Iterable<String> keys() {
+            return SECTION_KEYS;
+        }
+
+        @Override
+        public boolean hasKey(String key) {
+            return TEXTURE_KEY.equals(key) || EMISSIVE_KEY.equals(key);
+        }
+
+        @Override
+        public boolean hasKey(int index) {
+            requireNonNegative(index);
+            return index < SECTION_KEYS.size();
+        }
+
+        @Override
+        PropertiesMetadataView.Value value(String key) {
+            if (TEXTURE_KEY.equals(key)) {
+                return TEXTURE;
+            }
+
+            return EMISSIVE_KEY.equals(key) ? EMISSIVE : null;
+        }
+
+        @Override
+        PropertiesMetadataView.Value value(int index) {
+            return hasKey(index) ? value(SECTION_KEYS.get(index)) : null;
+        }
+
+    }
+
+}
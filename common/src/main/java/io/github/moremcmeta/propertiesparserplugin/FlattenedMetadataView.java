@@ -0,0 +1,114 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.moremcmeta.propertiesparserplugin.ListMetadataView.requireNonNegative;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MetadataView} that combines several views into one, like
+ * {@link io.github.moremcmeta.moremcmeta.api.client.metadata.CombinedMetadataView}, but decides which view
+ * owns each key once, when the view is created. Keys are in the order they first appear in the views, and
+ * views earlier in the list take precedence. Each lookup hashes the key once and delegates directly to the
+ * view that owns it, instead of asking every view in turn. Nested flattened views are merged into the new
+ * view rather than kept as a layer.
+ * @author soir20
+ */
+final class FlattenedMetadataView extends ValueMetadataView {
+    private final String[] KEYS;
+    private final KeyedValue[] VALUES;
+    private final int[] BUCKETS;
+
+    /**
+     * Creates a new flattened view.
+     * @param views         views to combine, in order of precedence
+     */
+    public FlattenedMetadataView(List<? extends MetadataView> views) {
+        requireNonNull(views, "Views cannot be null");
+
+        Map<String, KeyedValue> values = new LinkedHashMap<>();
+        for (MetadataView view : views) {
+            requireNonNull(view, "View cannot be null");
+            if (view instanceof FlattenedMetadataView flattenedView) {
+                for (int index = 0; index < flattenedView.KEYS.length; index++) {
+                    values.putIfAbsent(flattenedView.KEYS[index], flattenedView.VALUES[index]);
+                }
+            } else {
+                for (String key : view.keys()) {
+                    if (!values.containsKey(key)) {
+                        values.put(key, new KeyedValue(view, key));
+                    }
+                }
+            }
+        }
+
+        KEYS = values.keySet().toArray(new String[0]);
+        VALUES = values.values().toArray(new KeyedValue[0]);
+        BUCKETS = KeyBuckets.forKeys(KEYS);
+    }
+
+    @Override
+    public int size() {
+        return KEYS.length;
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(KEYS));
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < KEYS.length;
+    }
+
+    @Override
+    KeyedValue value(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : VALUES[index];
+    }
+
+    @Override
+    KeyedValue value(int index) {
+        return hasKey(index) ? VALUES[index] : null;
+    }
+
+    /**
+     * Finds the index of a key.
+     * @param key       key to find
+     * @return index of the key or -1 if the key is not present
+     */
+    private int indexOf(String key) {
+        return KeyBuckets.indexOf(KEYS, BUCKETS, key);
+    }
+
+}
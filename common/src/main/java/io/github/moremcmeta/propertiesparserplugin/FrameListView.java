@@ -0,0 +1,648 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static io.github.moremcmeta.propertiesparserplugin.ListMetadataView.requireNonNegative;
+
+/**
+ * {@link MetadataView} of an animation's frame list, backed by primitive arrays of each explicitly-defined
+ * frame's tile and duration. Frames that were never defined are implicit: they have no duration and use their
+ * own index as their tile, so they take no space. Each frame is presented as a sub view with an optional
+ * "time" key and an "index" key. Those sub views are only created the first time they are requested and are
+ * reused afterward, so repeated frame access does not allocate. Implicit frames in very long lists are the
+ * exception, since caching them would take space for every frame.
+ * @author soir20
+ */
+final class FrameListView extends ValueMetadataView {
+    private static final String TIME_KEY = "time";
+    private static final String INDEX_KEY = "index";
+    private static final int IMPLICIT = -1;
+    private static final int MAX_CACHED_IMPLICIT_FRAMES = 1024;
+
+    private final int SIZE;
+    private final int[] FRAMES;
+    private final int[] TILES;
+    private final int[] DURATIONS;
+    private final boolean[] HAS_DURATION;
+    private final String[] RAW_TILES;
+    private final String[] RAW_DURATIONS;
+    private final FrameValue[] EXPLICIT_VALUES;
+    private volatile FrameValue[] implicitValues;
+
+    /**
+     * Creates a new frame list view. All arrays except the frame indices are indexed by entry, not by frame.
+     * @param size              number of frames
+     * @param frames            sorted indices of the explicitly-defined frames
+     * @param tiles             tile index of each explicit frame
+     * @param durations         duration of each explicit frame
+     * @param hasDuration       whether each explicit frame has a duration
+     * @param rawTiles          tiles that are not canonical integers, or null if there are none
+     * @param rawDurations      durations that are not canonical integers, or null if there are none
+     */
+    private FrameListView(int size, int[] frames, int[] tiles, int[] durations, boolean[] hasDuration,
+                          String[] rawTiles, String[] rawDurations) {
+        SIZE = size;
+        FRAMES = frames;
+        TILES = tiles;
+        DURATIONS = durations;
+        HAS_DURATION = hasDuration;
+        RAW_TILES = rawTiles;
+        RAW_DURATIONS = rawDurations;
+        EXPLICIT_VALUES = new FrameValue[frames.length];
+    }
+
+    @Override
+    public int size() {
+        return SIZE;
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return ListMetadataView.indexKeys(SIZE);
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return ListMetadataView.parseIndex(key, SIZE) >= 0;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < SIZE;
+    }
+
+    @Override
+    FrameValue value(String key) {
+        int frame = ListMetadataView.parseIndex(key, SIZE);
+        return frame < 0 ? null : frameValue(frame);
+    }
+
+    @Override
+    FrameValue value(int index) {
+        return hasKey(index) ? frameValue(index) : null;
+    }
+
+    /**
+     * Gets the value holding a frame's view, creating it if it has not been requested before. Two threads
+     * may race to create the same value, but both values are equivalent and immutable, so either can be kept.
+     * @param frame     index of the frame
+     * @return value holding the view of the frame
+     */
+    private FrameValue frameValue(int frame) {
+        int entry = entry(frame);
+        FrameValue[] values;
+        int slot;
+
+        if (entry != IMPLICIT) {
+            values = EXPLICIT_VALUES;
+            slot = entry;
+        } else if (SIZE <= MAX_CACHED_IMPLICIT_FRAMES) {
+            values = implicitValues;
+            if (values == null) {
+                values = new FrameValue[SIZE];
+                implicitValues = values;
+            }
+
+            slot = frame;
+        } else {
+            return new FrameValue(new FrameView(frame, IMPLICIT));
+        }
+
+        FrameValue value = values[slot];
+        if (value == null) {
+            value = new FrameValue(new FrameView(frame, entry));
+            values[slot] = value;
+        }
+
+        return value;
+    }
+
+    /**
+     * Finds the entry of an explicitly-defined frame.
+     * @param frame     index of the frame
+     * @return entry of the frame or {@link #IMPLICIT} if the frame was not explicitly defined
+     */
+    private int entry(int frame) {
+        int entry = Arrays.binarySearch(FRAMES, frame);
+        return entry >= 0 ? entry : IMPLICIT;
+    }
+
+    /**
+     * Lightweight view of a single frame in the list.
+     * @author soir20
+     */
+    private final class FrameView extends ValueMetadataView {
+        private static final int TIME = 0;
+        private static final int INDEX = 1;
+        private static final int ABSENT = -1;
+
+        private final int FRAME;
+        private final int ENTRY;
+        private final SlotValue TIME_VALUE;
+        private final SlotValue INDEX_VALUE;
+
+        /**
+         * Creates a new view of a frame.
+         * @param frame     index of the frame in the list
+         * @param entry     entry of the frame or {@link #IMPLICIT} if it was not explicitly defined
+         */
+        public FrameView(int frame, int entry) {
+            FRAME = frame;
+            ENTRY = entry;
+            TIME_VALUE = hasDuration() ? new SlotValue(TIME) : null;
+            INDEX_VALUE = new SlotValue(INDEX);
+        }
+
+        @Override
+        public int size() {
+            return hasDuration() ? 2 : 1;
+        }
+
+        @Override
+        public Iterable<String> keys() {
+            return hasDuration() ? Arrays.asList(TIME_KEY, INDEX_KEY) : Arrays.asList(INDEX_KEY);
+        }
+
+        @Override
+        public boolean hasKey(String key) {
+            return slot(key) != ABSENT;
+        }
+
+        @Override
+        public boolean hasKey(int index) {
+            return slot(index) != ABSENT;
+        }
+
+        @Override
+        SlotValue value(String key) {
+            return valueInSlot(slot(key));
+        }
+
+        @Override
+        SlotValue value(int index) {
+            return valueInSlot(slot(index));
+        }
+
+        /**
+         * Gets the value in a slot.
+         * @param slot      slot to retrieve
+         * @return value in the slot or null if the slot is absent
+         */
+        private SlotValue valueInSlot(int slot) {
+            if (slot == ABSENT) {
+                return null;
+            }
+
+            return slot == TIME ? TIME_VALUE : INDEX_VALUE;
+        }
+
+        /**
+         * Converts a key to a slot in this frame.
+         * @param key       key to convert
+         * @return slot of the key or {@link #ABSENT} if the frame does not have the key
+         */
+        private int slot(String key) {
+            if (INDEX_KEY.equals(key)) {
+                return INDEX;
+            }
+
+            if (TIME_KEY.equals(key) && hasDuration()) {
+                return TIME;
+            }
+
+            return ABSENT;
+        }
+
+        /**
+         * Converts an index to a slot in this frame.
+         * @param index     index to convert
+         * @return slot at the index or {@link #ABSENT} if the frame does not have the index
+         */
+        private int slot(int index) {
+            requireNonNegative(index);
+
+            if (hasDuration()) {
+                return index == TIME ? TIME : (index == INDEX ? INDEX : ABSENT);
+            }
+
+            return index == 0 ? INDEX : ABSENT;
+        }
+
+        /**
+         * Checks whether this frame has a duration. Implicit frames never have one.
+         * @return true if this frame has a duration, false otherwise
+         */
+        private boolean hasDuration() {
+            return ENTRY != IMPLICIT && HAS_DURATION[ENTRY];
+        }
+
+        /**
+         * Gets the raw string in a slot if it is not a canonical integer.
+         * @param slot      slot to retrieve
+         * @return raw string or null if the slot holds a canonical integer
+         */
+        private String rawInSlot(int slot) {
+            if (ENTRY == IMPLICIT) {
+                return null;
+            }
+
+            String[] rawValues = slot == TIME ? RAW_DURATIONS : RAW_TILES;
+            return rawValues == null ? null : rawValues[ENTRY];
+        }
+
+        /**
+         * Gets the integer in a slot, assuming it is a canonical integer.
+         * @param slot      slot to retrieve
+         * @return integer in the slot
+         */
+        private int intInSlot(int slot) {
+            if (ENTRY == IMPLICIT) {
+                return FRAME;
+            }
+
+            return slot == TIME ? DURATIONS[ENTRY] : TILES[ENTRY];
+        }
+
+        /**
+         * Value in one slot of a frame.
+         * @author soir20
+         */
+        private final class SlotValue implements MetadataValue {
+            private final int SLOT;
+
+            /**
+             * Creates a new value for a slot.
+             * @param slot      slot of the value
+             */
+            public SlotValue(int slot) {
+                SLOT = slot;
+            }
+
+            @Override
+            public Optional<String> stringValue() {
+                String raw = rawInSlot(SLOT);
+                return Optional.of(raw == null ? String.valueOf(intInSlot(SLOT)) : raw);
+            }
+
+            @Override
+            public Optional<Integer> integerValue() {
+                String raw = rawInSlot(SLOT);
+                return raw == null ? Optional.of(intInSlot(SLOT)) : PropertiesMetadataView.parseInteger(raw);
+            }
+
+            @Override
+            public Optional<Long> longValue() {
+                String raw = rawInSlot(SLOT);
+                return raw == null ? Optional.of((long) intInSlot(SLOT)) : PropertiesMetadataView.parseLong(raw);
+            }
+
+            @Override
+            public Optional<Float> floatValue() {
+                String raw = rawInSlot(SLOT);
+                return raw == null ? Optional.of((float) intInSlot(SLOT)) : PropertiesMetadataView.parseFloat(raw);
+            }
+
+            @Override
+            public Optional<Double> doubleValue() {
+                String raw = rawInSlot(SLOT);
+                return raw == null ? Optional.of((double) intInSlot(SLOT)) : PropertiesMetadataView.parseDouble(raw);
+            }
+
+            @Override
+            public Optional<Boolean> booleanValue() {
+                String raw = rawInSlot(SLOT);
+                return raw == null ? Optional.of(false) : PropertiesMetadataView.parseBoolean(raw);
+            }
+
+            @Override
+            public int integerValueOr(int defaultValue) {
+                String raw = rawInSlot(SLOT);
+                if (raw == null) {
+                    return intInSlot(SLOT);
+                }
+
+                Optional<Integer> result = PropertiesMetadataView.parseInteger(raw);
+                return result.isPresent() ? result.get() : defaultValue;
+            }
+
+            @Override
+            public long longValueOr(long defaultValue) {
+                String raw = rawInSlot(SLOT);
+                if (raw == null) {
+                    return intInSlot(SLOT);
+                }
+
+                Optional<Long> result = PropertiesMetadataView.parseLong(raw);
+                return result.isPresent() ? result.get() : defaultValue;
+            }
+
+            @Override
+            public float floatValueOr(float defaultValue) {
+                String raw = rawInSlot(SLOT);
+                if (raw == null) {
+                    return intInSlot(SLOT);
+                }
+
+                Optional<Float> result = PropertiesMetadataView.parseFloat(raw);
+                return result.isPresent() ? result.get() : defaultValue;
+            }
+
+            @Override
+            public double doubleValueOr(double defaultValue) {
+                String raw = rawInSlot(SLOT);
+                if (raw == null) {
+                    return intInSlot(SLOT);
+                }
+
+                Optional<Double> result = PropertiesMetadataView.parseDouble(raw);
+                return result.isPresent() ? result.get() : defaultValue;
+            }
+
+            @Override
+            public boolean booleanValueOr(boolean defaultValue) {
+                String raw = rawInSlot(SLOT);
+                if (raw == null) {
+                    return false;
+                }
+
+                Optional<Boolean> result = PropertiesMetadataView.parseBoolean(raw);
+                return result.isPresent() ? result.get() : defaultValue;
+            }
+
+            @Override
+            public Optional<InputStream> byteStreamValue() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<MetadataView> subView() {
+                return Optional.empty();
+            }
+
+        }
+
+    }
+
+    /**
+     * Value of a frame in the list, which is the frame's view. The view is wrapped once, so requesting
+     * the same frame again does not allocate.
+     * @author soir20
+     */
+    private static final class FrameValue implements MetadataValue {
+        private final Optional<MetadataView> VIEW;
+
+        /**
+         * Creates a new value for a frame.
+         * @param view      view of the frame
+         */
+        public FrameValue(FrameView view) {
+            VIEW = Optional.of(view);
+        }
+
+        @Override
+        public Optional<String> stringValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Integer> integerValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Long> longValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Float> floatValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Double> doubleValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Boolean> booleanValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<InputStream> byteStreamValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<MetadataView> subView() {
+            return VIEW;
+        }
+
+    }
+
+    /**
+     * Builds a {@link FrameListView} from tile.N and duration.N properties in a single pass. Only frames
+     * that are explicitly defined are stored, kept sorted by their index.
+     * @author soir20
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int size;
+        private int entries;
+        private int[] frames;
+        private int[] tiles;
+        private int[] durations;
+        private boolean[] hasDuration;
+        private String[] rawTiles;
+        private String[] rawDurations;
+
+        /**
+         * Creates a new builder with no frames.
+         */
+        public Builder() {
+            frames = new int[0];
+            tiles = new int[0];
+            durations = new int[0];
+            hasDuration = new boolean[0];
+        }
+
+        /**
+         * Sets the tile of a frame to the value of an entry in a token table, replacing any tile previously set.
+         * The value is only converted to a string if it is not a canonical integer.
+         * @param frame     index of the frame
+         * @param tokens    table containing the tile
+         * @param entry     entry of the tile in the table
+         */
+        public void putTile(int frame, PropertiesTokens tokens, int entry) {
+            int frameEntry = findOrInsert(frame);
+            long canonicalValue = tokens.canonicalIntValue(entry);
+            String rawValue = canonicalValue == PropertiesTokens.NOT_CANONICAL ? tokens.value(entry) : null;
+            rawTiles = store(tiles, rawTiles, frameEntry, canonicalValue, rawValue);
+        }
+
+        /**
+         * Sets the duration of a frame to the value of an entry in a token table, replacing any duration
+         * previously set. The value is only converted to a string if it is not a canonical integer.
+         * @param frame     index of the frame
+         * @param tokens    table containing the duration
+         * @param entry     entry of the duration in the table
+         */
+        public void putDuration(int frame, PropertiesTokens tokens, int entry) {
+            int frameEntry = findOrInsert(frame);
+            hasDuration[frameEntry] = true;
+            long canonicalValue = tokens.canonicalIntValue(entry);
+            String rawValue = canonicalValue == PropertiesTokens.NOT_CANONICAL ? tokens.value(entry) : null;
+            rawDurations = store(durations, rawDurations, frameEntry, canonicalValue, rawValue);
+        }
+
+        /**
+         * Ensures the list includes a frame without setting its tile or duration.
+         * @param frame     index of the frame, which must be less than {@link Integer#MAX_VALUE}
+         */
+        public void extend(int frame) {
+            size = Math.max(size, frame + 1);
+        }
+
+        /**
+         * Builds a view of all frames added so far. Frames without a tile use their own index as their tile.
+         * @return view of all frames or {@link Optional#empty()} if no frames were added
+         */
+        public Optional<FrameListView> build() {
+            if (size == 0) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new FrameListView(
+                    size,
+                    Arrays.copyOf(frames, entries),
+                    Arrays.copyOf(tiles, entries),
+                    Arrays.copyOf(durations, entries),
+                    Arrays.copyOf(hasDuration, entries),
+                    rawTiles == null ? null : Arrays.copyOf(rawTiles, entries),
+                    rawDurations == null ? null : Arrays.copyOf(rawDurations, entries)
+            ));
+        }
+
+        /**
+         * Finds the entry of an explicitly-defined frame, adding a new entry if the frame has not
+         * been defined yet. A new entry has no duration and uses the frame's index as its tile.
+         * Frames are usually defined in ascending order, so new entries are typically appended.
+         * @param frame     index of the frame, which must be less than {@link Integer#MAX_VALUE}
+         * @return entry of the frame
+         */
+        private int findOrInsert(int frame) {
+            extend(frame);
+
+            int entry = entries > 0 && frames[entries - 1] < frame
+                    ? -entries - 1
+                    : Arrays.binarySearch(frames, 0, entries, frame);
+            if (entry >= 0) {
+                return entry;
+            }
+
+            entry = -entry - 1;
+            if (entries == frames.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, frames.length * 2);
+                frames = Arrays.copyOf(frames, capacity);
+                tiles = Arrays.copyOf(tiles, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+                hasDuration = Arrays.copyOf(hasDuration, capacity);
+
+                if (rawTiles != null) {
+                    rawTiles = Arrays.copyOf(rawTiles, capacity);
+                }
+
+                if (rawDurations != null) {
+                    rawDurations = Arrays.copyOf(rawDurations, capacity);
+                }
+            }
+
+            int moved = entries - entry;
+            if (moved > 0) {
+                System.arraycopy(frames, entry, frames, entry + 1, moved);
+                System.arraycopy(tiles, entry, tiles, entry + 1, moved);
+                System.arraycopy(durations, entry, durations, entry + 1, moved);
+                System.arraycopy(hasDuration, entry, hasDuration, entry + 1, moved);
+
+                if (rawTiles != null) {
+                    System.arraycopy(rawTiles, entry, rawTiles, entry + 1, moved);
+                }
+
+                if (rawDurations != null) {
+                    System.arraycopy(rawDurations, entry, rawDurations, entry + 1, moved);
+                }
+            }
+
+            frames[entry] = frame;
+            tiles[entry] = frame;
+            durations[entry] = 0;
+            hasDuration[entry] = false;
+
+            if (rawTiles != null) {
+                rawTiles[entry] = null;
+            }
+
+            if (rawDurations != null) {
+                rawDurations[entry] = null;
+            }
+
+            entries++;
+            return entry;
+        }
+
+        /**
+         * Stores a value as an integer if it is a canonical integer or as a raw string otherwise.
+         * @param values            integer values to store the value in
+         * @param rawValues         raw values to store the value in, or null if none have been stored yet
+         * @param entry             entry of the frame
+         * @param canonicalValue    value as an integer or {@link PropertiesTokens#NOT_CANONICAL} if it is
+         *                          not a canonical integer
+         * @param rawValue          value as a string, which is only used if the value is not a canonical integer
+         * @return raw values after storing the value, which may be a newly-allocated array
+         */
+        private static String[] store(int[] values, String[] rawValues, int entry, long canonicalValue,
+                                      String rawValue) {
+            if (canonicalValue != PropertiesTokens.NOT_CANONICAL) {
+                values[entry] = (int) canonicalValue;
+                if (rawValues != null) {
+                    rawValues[entry] = null;
+                }
+
+                return rawValues;
+            }
+
+            if (rawValues == null) {
+                rawValues = new String[values.length];
+            }
+
+            rawValues[entry] = rawValue;
+            return rawValues;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+/**
+ * Open-addressing hash table of the keys of a view, shared by all views that look up their keys by index.
+ * The table is an array of buckets, and each bucket holds one more than the index of its key, or
+ * {@link #EMPTY_BUCKET} if it is empty. Small views do not need a table, as scanning their keys is faster.
+ * @author soir20
+ */
+final class KeyBuckets {
+    static final int EMPTY_BUCKET = 0;
+    private static final int HASH_THRESHOLD = 8;
+
+    /**
+     * Prevents the class from being instantiated.
+     */
+    private KeyBuckets() {}
+
+    /**
+     * Builds a hash table of keys if there are enough keys to need one.
+     * @param keys      keys to add to the table
+     * @return hash table of key indices or null if the keys should be scanned instead
+     */
+    public static int[] forKeys(String[] keys) {
+        if (keys.length <= HASH_THRESHOLD) {
+            return null;
+        }
+
+        int[] hashes = new int[keys.length];
+        for (int index = 0; index < keys.length; index++) {
+            hashes[index] = keys[index].hashCode();
+        }
+
+        return make(hashes, keys.length);
+    }
+
+    /**
+     * Builds a hash table of key indices.
+     * @param hashes    hash code of each key
+     * @param size      number of keys, starting from the first hash code
+     * @return hash table of key indices
+     */
+    public static int[] make(int[] hashes, int size) {
+
+        // Keep the table at most half full so that probe sequences stay short
+        int[] buckets = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+        int mask = buckets.length - 1;
+
+        for (int index = 0; index < size; index++) {
+            int bucket = spread(hashes[index]) & mask;
+            while (buckets[bucket] != EMPTY_BUCKET) {
+                bucket = (bucket + 1) & mask;
+            }
+
+            buckets[bucket] = index + 1;
+        }
+
+        return buckets;
+    }
+
+    /**
+     * Finds the index of a key. Without a table, keys are scanned linearly, first by identity because keys
+     * are usually canonical.
+     * @param keys      all keys
+     * @param buckets   hash table of the keys or null if there is no table
+     * @param key       key to find
+     * @return index of the key or -1 if the key is not present
+     */
+    public static int indexOf(String[] keys, int[] buckets, String key) {
+        if (key == null) {
+            return -1;
+        }
+
+        if (buckets == null) {
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index] == key) {
+                    return index;
+                }
+            }
+
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+            }
+
+            return -1;
+        }
+
+        int mask = buckets.length - 1;
+        int bucket = spread(key.hashCode()) & mask;
+        while (buckets[bucket] != EMPTY_BUCKET) {
+            int index = buckets[bucket] - 1;
+            if (keys[index].equals(key)) {
+                return index;
+            }
+
+            bucket = (bucket + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits used to select a bucket.
+     * @param hash      hash code to mix
+     * @return mixed hash code
+     */
+    public static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
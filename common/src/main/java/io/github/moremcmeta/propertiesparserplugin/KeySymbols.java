@@ -0,0 +1,167 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Symbol table that gives each distinct metadata key a single canonical string. One table is shared by all
+ * files read during the same resource reload, so views of different files share their key strings, and
+ * lookups with a canonical key succeed on identity alone. Keys in a {@link PropertiesTokens} table are
+ * resolved without creating a string unless the key has not been seen before.
+ * @author soir20
+ */
+final class KeySymbols {
+    private static final int INDEX_KEY_COUNT = 1024;
+    private static final String[] INDEX_KEYS = makeIndexKeys();
+    private static final int INITIAL_CAPACITY = 64;
+
+    /* Lookups read the table without locking. A lookup that races with an insertion either sees the
+       new symbol, which is safe because strings are immutable, or misses and retries under the lock. */
+    private volatile String[] symbols;
+    private int size;
+
+    /**
+     * Creates a new, empty symbol table.
+     */
+    public KeySymbols() {
+        symbols = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the key of an index in a numbered section. Keys for small indices are created only once.
+     * @param index     index to get the key of, which must not be negative
+     * @return key of the index
+     */
+    public static String indexKey(int index) {
+        return index < INDEX_KEY_COUNT ? INDEX_KEYS[index] : String.valueOf(index);
+    }
+
+    /**
+     * Gets the canonical instance of a key.
+     * @param key       key to find
+     * @return canonical key equal to the given key
+     */
+    public String intern(String key) {
+        requireNonNull(key, "Key cannot be null");
+        String symbol = find(symbols, key);
+        return symbol != null ? symbol : insert(key);
+    }
+
+    /**
+     * Gets the canonical instance of the key of an entry in a token table. The key is only created as
+     * a string when it is not already in the symbol table.
+     * @param tokens    table containing the entry
+     * @param entry     index of the entry
+     * @return canonical key equal to the entry's key
+     */
+    public String intern(PropertiesTokens tokens, int entry) {
+        String[] symbols = this.symbols;
+        int hash = tokens.keyHash(entry);
+        int mask = symbols.length - 1;
+
+        for (int bucket = KeyBuckets.spread(hash) & mask; symbols[bucket] != null; bucket = (bucket + 1) & mask) {
+            String symbol = symbols[bucket];
+            if (symbol.hashCode() == hash && tokens.keyEquals(entry, symbol)) {
+                return symbol;
+            }
+        }
+
+        return insert(tokens.key(entry));
+    }
+
+    /**
+     * Adds a key to the table if no equal key was added since the last lookup.
+     * @param key       key to add
+     * @return canonical key equal to the given key
+     */
+    private synchronized String insert(String key) {
+        String symbol = find(symbols, key);
+        if (symbol != null) {
+            return symbol;
+        }
+
+        // Keep the table at most half full so that probe sequences stay short
+        String[] symbols = this.symbols;
+        if ((size + 1) * 2 > symbols.length) {
+            String[] resized = new String[symbols.length * 2];
+            for (String existing : symbols) {
+                if (existing != null) {
+                    resized[emptyBucket(resized, existing)] = existing;
+                }
+            }
+
+            symbols = resized;
+        }
+
+        symbols[emptyBucket(symbols, key)] = key;
+        size++;
+        this.symbols = symbols;
+        return key;
+    }
+
+    /**
+     * Finds a key in a table.
+     * @param symbols   table to search
+     * @param key       key to find
+     * @return canonical key or null if the key is not in the table
+     */
+    private static String find(String[] symbols, String key) {
+        int hash = key.hashCode();
+        int mask = symbols.length - 1;
+
+        for (int bucket = KeyBuckets.spread(hash) & mask; symbols[bucket] != null; bucket = (bucket + 1) & mask) {
+            String symbol = symbols[bucket];
+            if (symbol == key || (symbol.hashCode() == hash && symbol.equals(key))) {
+                return symbol;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the first empty bucket for a key in a table.
+     * @param symbols   table to search
+     * @param key       key to add
+     * @return index of the empty bucket
+     */
+    private static int emptyBucket(String[] symbols, String key) {
+        int mask = symbols.length - 1;
+        int bucket = KeyBuckets.spread(key.hashCode()) & mask;
+        while (symbols[bucket] != null) {
+            bucket = (bucket + 1) & mask;
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Creates the keys of all indices that are created only once.
+     * @return keys of all small indices
+     */
+    private static String[] makeIndexKeys() {
+        String[] keys = new String[INDEX_KEY_COUNT];
+        for (int index = 0; index < INDEX_KEY_COUNT; index++) {
+            keys[index] = String.valueOf(index);
+        }
+
+        return keys;
+    }
+
+}
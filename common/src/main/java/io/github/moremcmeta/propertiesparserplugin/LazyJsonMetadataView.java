@@ -0,0 +1,290 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.JsonMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.github.moremcmeta.propertiesparserplugin.ListMetadataView.requireNonNegative;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MetadataView} of a JSON object that only builds the sections that are read. Reading the object
+ * checks that it is valid JSON by skipping every value token by token, without creating any JSON elements,
+ * and then records where each section's value starts and ends in the object's UTF-8 contents. Nothing is
+ * copied, including entries replaced by a later entry with the same key. Each section is parsed from its
+ * range of the contents into a {@link JsonMetadataView} the first time it is requested, so the view behaves
+ * exactly like a {@link JsonMetadataView} of the whole object, while no JSON elements are created for sections
+ * that are never read. The view keeps the contents until every section has been parsed.
+ * @author soir20
+ */
+final class LazyJsonMetadataView extends ValueMetadataView {
+    private static final TypeAdapter<JsonElement> ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    private final String[] KEYS;
+    private final int[] STARTS;
+    private final int[] ENDS;
+    private final AtomicInteger UNPARSED;
+
+    /* Views may be read from several threads at once, such as by the parallel default metadata tasks, so parsed
+       sections are published through an atomic array instead of a plain array that another thread may read
+       before the section is fully constructed. */
+    private final AtomicReferenceArray<KeyedValue> SECTIONS;
+
+    // Released once every section has been parsed
+    private volatile byte[] contents;
+
+    /**
+     * Creates a new view.
+     * @param contents          UTF-8 contents of the object
+     * @param keys              all keys in the object, in sorted order
+     * @param starts            index in the contents where the value of each section starts
+     * @param ends              index in the contents after the value of each section ends
+     */
+    private LazyJsonMetadataView(byte[] contents, String[] keys, int[] starts, int[] ends) {
+        this.contents = keys.length == 0 ? null : contents;
+        KEYS = keys;
+        STARTS = starts;
+        ENDS = ends;
+        UNPARSED = new AtomicInteger(keys.length);
+        SECTIONS = new AtomicReferenceArray<>(keys.length);
+    }
+
+    /**
+     * Reads a view of a JSON object. The same JSON is accepted as when the object is parsed with
+     * a {@link Gson} instance that is not lenient.
+     * @param contents      UTF-8 contents of the JSON object, which must not be modified afterward
+     * @return view of the object
+     * @throws JsonParseException if the contents are not a valid JSON object
+     */
+    public static LazyJsonMetadataView read(byte[] contents) throws JsonParseException {
+        requireNonNull(contents, "Contents cannot be null");
+
+        List<String> names = new ArrayList<>();
+        try {
+            JsonReader jsonReader = new JsonReader(reader(contents, 0, contents.length));
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                names.add(jsonReader.nextName());
+                jsonReader.skipValue();
+            }
+            jsonReader.endObject();
+        } catch (IOException | IllegalStateException err) {
+            throw new JsonParseException(err);
+        }
+
+        /* The contents are valid JSON, so the entries can be found again without checking their syntax. Later
+           entries replace earlier entries with the same key, like in a parsed JsonObject. */
+        Map<String, int[]> rangesByKey = new TreeMap<>();
+        int position = skipWhitespace(contents, 0) + 1;
+        for (String name : names) {
+            position = skipWhitespace(contents, position);
+            position = skipWhitespace(contents, skipString(contents, position)) + 1;
+            int start = skipWhitespace(contents, position);
+            position = skipValue(contents, start);
+            rangesByKey.put(name, new int[] { start, position });
+            position = skipWhitespace(contents, position) + 1;
+        }
+
+        String[] keys = new String[rangesByKey.size()];
+        int[] starts = new int[keys.length];
+        int[] ends = new int[keys.length];
+        int keyIndex = 0;
+        for (Map.Entry<String, int[]> entry : rangesByKey.entrySet()) {
+            keys[keyIndex] = entry.getKey();
+            starts[keyIndex] = entry.getValue()[0];
+            ends[keyIndex++] = entry.getValue()[1];
+        }
+
+        return new LazyJsonMetadataView(contents, keys, starts, ends);
+    }
+
+    @Override
+    public int size() {
+        return KEYS.length;
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(KEYS));
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return Arrays.binarySearch(KEYS, key) >= 0;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < KEYS.length;
+    }
+
+    @Override
+    KeyedValue value(String key) {
+        int index = Arrays.binarySearch(KEYS, key);
+        return index < 0 ? null : value(index);
+    }
+
+    /**
+     * Gets the value at an index, parsing its section if it has not been parsed yet. Two threads may race
+     * to parse the same section, but only the first value is kept, so every thread gets the same value.
+     * @param index     index of the value
+     * @return the value or null if there is no value at the index
+     */
+    @Override
+    KeyedValue value(int index) {
+        requireNonNegative(index);
+        if (index >= KEYS.length) {
+            return null;
+        }
+
+        KeyedValue value = SECTIONS.get(index);
+        if (value != null) {
+            return value;
+        }
+
+        // The contents are only released after every section, including this one, has been parsed
+        byte[] contents = this.contents;
+        if (contents != null) {
+            KeyedValue parsedValue = new KeyedValue(parseSection(contents, index), KEYS[index]);
+            if (SECTIONS.compareAndSet(index, null, parsedValue) && UNPARSED.decrementAndGet() == 0) {
+                this.contents = null;
+            }
+        }
+
+        return SECTIONS.get(index);
+    }
+
+    /**
+     * Parses the value of a section from the object's contents.
+     * @param contents      UTF-8 contents of the object
+     * @param index         index of the section
+     * @return view of an object that only contains the section
+     */
+    private MetadataView parseSection(byte[] contents, int index) {
+        JsonObject section = new JsonObject();
+        try {
+            section.add(KEYS[index], ELEMENT_ADAPTER.fromJson(reader(contents, STARTS[index], ENDS[index])));
+        } catch (IOException err) {
+
+            // The section was checked to be valid JSON when the object was read
+            throw new JsonParseException(err);
+
+        }
+
+        return new JsonMetadataView(section, String::compareTo);
+    }
+
+    /**
+     * Creates a reader of part of the object's contents.
+     * @param contents      UTF-8 contents of the object
+     * @param start         index of the first byte to read (inclusive)
+     * @param end           index of the last byte to read (exclusive)
+     * @return reader of the bytes in the range
+     */
+    private static Reader reader(byte[] contents, int start, int end) {
+        return new InputStreamReader(new ByteArrayInputStream(contents, start, end - start), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips JSON whitespace. All structural characters are single bytes in UTF-8, and no byte of a multibyte
+     * character can be mistaken for one, so valid contents can be scanned byte by byte.
+     * @param contents      UTF-8 contents of the object
+     * @param position      index of the first byte to check
+     * @return index of the first byte that is not whitespace
+     */
+    private static int skipWhitespace(byte[] contents, int position) {
+        while (position < contents.length && (contents[position] == ' ' || contents[position] == '\t'
+                || contents[position] == '\n' || contents[position] == '\r')) {
+            position++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Skips a valid JSON string.
+     * @param contents      UTF-8 contents of the object
+     * @param position      index of the opening quote
+     * @return index after the closing quote
+     */
+    private static int skipString(byte[] contents, int position) {
+        position++;
+        while (contents[position] != '"') {
+            position += contents[position] == '\\' ? 2 : 1;
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Skips a valid JSON value.
+     * @param contents      UTF-8 contents of the object
+     * @param position      index of the first byte of the value
+     * @return index after the last byte of the value
+     */
+    private static int skipValue(byte[] contents, int position) {
+        int depth = 0;
+        do {
+            byte next = contents[position];
+            if (next == '"') {
+                position = skipString(contents, position);
+            } else if (next == '{' || next == '[') {
+                depth++;
+                position++;
+            } else if (next == '}' || next == ']') {
+                depth--;
+                position++;
+            } else if (depth == 0) {
+
+                // Literals such as numbers end at the first delimiter
+                while (position < contents.length && contents[position] != ',' && contents[position] != '}'
+                        && contents[position] != ']' && skipWhitespace(contents, position) == position) {
+                    position++;
+                }
+
+            } else {
+                position++;
+            }
+        } while (depth > 0);
+
+        return position;
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MetadataView} of a numbered section, where the key of each value is its index. Values are
+ * stored in an array, and no key strings are stored; they are only created when they are requested.
+ * @author soir20
+ */
+final class ListMetadataView extends ValueMetadataView {
+    private static final int MAX_INDEX_LENGTH = String.valueOf(Integer.MAX_VALUE).length();
+
+    private final PropertiesMetadataView.Value[] VALUES;
+
+    /**
+     * Creates a new list view.
+     * @param values        values in the list, in order
+     */
+    public ListMetadataView(List<PropertiesMetadataView.Value> values) {
+        requireNonNull(values, "Values cannot be null");
+        VALUES = values.toArray(new PropertiesMetadataView.Value[0]);
+        for (PropertiesMetadataView.Value value : VALUES) {
+            requireNonNull(value, "Value cannot be null");
+        }
+    }
+
+    /**
+     * Creates a new list view that uses an array directly instead of copying it. The array must not be
+     * modified after the view is created.
+     * @param values        values in the list, in order
+     */
+    public ListMetadataView(PropertiesMetadataView.Value[] values) {
+        VALUES = requireNonNull(values, "Values cannot be null");
+        for (PropertiesMetadataView.Value value : VALUES) {
+            requireNonNull(value, "Value cannot be null");
+        }
+    }
+
+    /**
+     * Creates a new list view with a single value.
+     * @param value         only value in the list
+     */
+    public ListMetadataView(PropertiesMetadataView.Value value) {
+        VALUES = new PropertiesMetadataView.Value[] { requireNonNull(value, "Value cannot be null") };
+    }
+
+    @Override
+    public int size() {
+        return VALUES.length;
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return indexKeys(VALUES.length);
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return parseIndex(key, VALUES.length) >= 0;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < VALUES.length;
+    }
+
+    /**
+     * Gets the keys of a numbered section, which are the indices from 0 to one less than the size.
+     * Keys of small indices are shared by all sections, and larger keys are only created when the
+     * iterator reaches them.
+     * @param size      number of keys
+     * @return all keys in the section
+     */
+    static Iterable<String> indexKeys(int size) {
+        return () -> new Iterator<>() {
+            private int nextIndex;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return KeySymbols.indexKey(nextIndex++);
+            }
+        };
+    }
+
+    /**
+     * Converts a key in a numbered section to an index. Only keys produced by {@link #indexKeys(int)} are
+     * accepted, so keys with signs or leading zeros do not refer to any index.
+     * @param key       key to convert
+     * @param size      number of keys in the section
+     * @return index of the key or -1 if the key does not refer to an index in the section
+     */
+    static int parseIndex(String key, int size) {
+        if (key == null || key.isEmpty() || key.length() > MAX_INDEX_LENGTH
+                || (key.charAt(0) == '0' && key.length() > 1)) {
+            return -1;
+        }
+
+        long index = 0;
+        for (int charIndex = 0; charIndex < key.length(); charIndex++) {
+            char c = key.charAt(charIndex);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            index = index * 10 + (c - '0');
+        }
+
+        return index < size ? (int) index : -1;
+    }
+
+    /**
+     * Throws a {@link NegativeKeyIndexException} if an index is negative.
+     * @param index     index to check
+     */
+    static void requireNonNegative(int index) {
+        if (index < 0) {
+            throw new NegativeKeyIndexException(index);
+        }
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(String key) {
+        int index = parseIndex(key, VALUES.length);
+        return index < 0 ? null : VALUES[index];
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(int index) {
+        return hasKey(index) ? VALUES[index] : null;
+    }
+
+}
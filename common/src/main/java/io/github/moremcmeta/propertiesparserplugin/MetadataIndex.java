@@ -0,0 +1,84 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Index of all default metadata files in a repository, so that textures without default metadata, which are
+ * most textures, do not need to be searched for in the repository's packs. The index is exact, so a file that
+ * is not in the index does not exist in any pack.
+ * @author soir20
+ */
+final class MetadataIndex {
+    private final Set<ResourceLocation> LOCATIONS;
+    private final LongAdder SKIPPED;
+    private final LongAdder SEARCHED;
+
+    /**
+     * Creates a new index.
+     * @param locations     locations of all default metadata files
+     */
+    public MetadataIndex(Collection<? extends ResourceLocation> locations) {
+        requireNonNull(locations, "Locations cannot be null");
+        LOCATIONS = new HashSet<>(locations);
+        SKIPPED = new LongAdder();
+        SEARCHED = new LongAdder();
+    }
+
+    /**
+     * Checks whether a default metadata file exists in any pack. Files that exist still have to be found
+     * in the repository to know which pack they are in.
+     * @param metadataLocation      location of the default metadata file
+     * @return true if the file exists, false otherwise
+     */
+    public boolean contains(ResourceLocation metadataLocation) {
+        requireNonNull(metadataLocation, "Metadata location cannot be null");
+        if (LOCATIONS.contains(metadataLocation)) {
+            SEARCHED.increment();
+            return true;
+        }
+
+        SKIPPED.increment();
+        return false;
+    }
+
+    /**
+     * Gets the number of lookups that did not need to search the repository because the file does not exist.
+     * @return number of lookups answered by the index alone
+     */
+    public long skipped() {
+        return SKIPPED.sum();
+    }
+
+    /**
+     * Gets the number of lookups that still needed to search the repository because the file exists.
+     * @return number of lookups passed on to the repository
+     */
+    public long searched() {
+        return SEARCHED.sum();
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.util.Optional;
+
+/**
+ * {@link MetadataView} with additional accessors that return primitives instead of {@link Optional}s.
+ * A default value is returned wherever the corresponding {@link MetadataView} accessor would return
+ * {@link Optional#empty()}, so views that store primitives can answer without allocating. The default
+ * implementations delegate to the {@link MetadataView} accessors.
+ * @author soir20
+ */
+public interface PrimitiveMetadataView extends MetadataView {
+
+    /**
+     * Retrieves an integer value from the view.
+     * @param key               key associated with the value
+     * @param defaultValue      value to return if the key is absent or its value is not an integer
+     * @return integer value or the default value
+     */
+    default int integerValueOr(String key, int defaultValue) {
+        Optional<Integer> value = integerValue(key);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves an integer value from the view.
+     * @param index             index of the value
+     * @param defaultValue      value to return if the index is absent or its value is not an integer
+     * @return integer value or the default value
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    default int integerValueOr(int index, int defaultValue) {
+        Optional<Integer> value = integerValue(index);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a long value from the view.
+     * @param key               key associated with the value
+     * @param defaultValue      value to return if the key is absent or its value is not a long
+     * @return long value or the default value
+     */
+    default long longValueOr(String key, long defaultValue) {
+        Optional<Long> value = longValue(key);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a long value from the view.
+     * @param index             index of the value
+     * @param defaultValue      value to return if the index is absent or its value is not a long
+     * @return long value or the default value
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    default long longValueOr(int index, long defaultValue) {
+        Optional<Long> value = longValue(index);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a float value from the view.
+     * @param key               key associated with the value
+     * @param defaultValue      value to return if the key is absent or its value is not a float
+     * @return float value or the default value
+     */
+    default float floatValueOr(String key, float defaultValue) {
+        Optional<Float> value = floatValue(key);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a float value from the view.
+     * @param index             index of the value
+     * @param defaultValue      value to return if the index is absent or its value is not a float
+     * @return float value or the default value
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    default float floatValueOr(int index, float defaultValue) {
+        Optional<Float> value = floatValue(index);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a double value from the view.
+     * @param key               key associated with the value
+     * @param defaultValue      value to return if the key is absent or its value is not a double
+     * @return double value or the default value
+     */
+    default double doubleValueOr(String key, double defaultValue) {
+        Optional<Double> value = doubleValue(key);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a double value from the view.
+     * @param index             index of the value
+     * @param defaultValue      value to return if the index is absent or its value is not a double
+     * @return double value or the default value
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    default double doubleValueOr(int index, double defaultValue) {
+        Optional<Double> value = doubleValue(index);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a boolean value from the view.
+     * @param key               key associated with the value
+     * @param defaultValue      value to return if the key is absent or its value is not a boolean
+     * @return boolean value or the default value
+     */
+    default boolean booleanValueOr(String key, boolean defaultValue) {
+        Optional<Boolean> value = booleanValue(key);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+    /**
+     * Retrieves a boolean value from the view.
+     * @param index             index of the value
+     * @param defaultValue      value to return if the index is absent or its value is not a boolean
+     * @return boolean value or the default value
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    default boolean booleanValueOr(int index, boolean defaultValue) {
+        Optional<Boolean> value = booleanValue(index);
+        return value.isPresent() ? value.get() : defaultValue;
+    }
+
+}
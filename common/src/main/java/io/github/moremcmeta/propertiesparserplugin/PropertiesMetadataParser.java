@@ -19,38 +19,33 @@ package io.github.moremcmeta.propertiesparserplugin;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.mojang.datafixers.util.Pair;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.CombinedMetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
-import io.github.moremcmeta.moremcmeta.api.client.metadata.JsonMetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.RootResourceName;
 import net.minecraft.ResourceLocationException;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.util.GsonHelper;
-import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Properties;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Reads metadata from .properties files.
@@ -60,35 +55,113 @@ public final class PropertiesMetadataParser implements MetadataParser {
     private static final ResourceLocation EMISSIVE_CONFIG = new ResourceLocation("optifine/emissive.properties");
     private static final String ANIMATION_PATH_START = "optifine/anim/";
     private static final String NAMESPACE_SEP = ":";
-    private static final String ANIMATION_SECTION = "animation";
-    private static final String PARTS_KEY = "parts";
-    private static final String OVERLAY_SECTION = "overlay";
+    static final String ANIMATION_SECTION = "animation";
+    static final String PARTS_KEY = "parts";
+    private static final String TEXTURE_EXTENSION = ".png";
+    private static final String METADATA_EXTENSION = ".mcmeta";
+
+    private static final int DEFAULT_BATCH_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    private static final int BATCH_SIZE = 32;
+    private static final int OVERLAY_BATCH_SIZE = 8;
+
+    private final AnimationMode ANIMATION_MODE;
+    private final CombineMode COMBINE_MODE;
+    private final int PARALLELISM;
+    private final ForkJoinPool BATCH_POOL;
+    private final Map<MetadataView, CombineState> COMBINE_STATES;
+    private final Map<ResourceRepository, ReloadScope> RELOAD_SCOPES;
+    private volatile WeakReference<ReloadScope> latestScope;
+
+    /**
+     * Creates a new parser that retains all properties from animation files.
+     */
+    public PropertiesMetadataParser() {
+        this(AnimationMode.ALL_PROPERTIES);
+    }
+
+    /**
+     * Creates a new parser that combines metadata in layers.
+     * @param animationMode     determines which properties from animation files are retained in the metadata
+     */
+    public PropertiesMetadataParser(AnimationMode animationMode) {
+        this(animationMode, CombineMode.LAYERED);
+    }
+
+    /**
+     * Creates a new parser that combines metadata in layers.
+     * @param animationMode     determines which properties from animation files are retained in the metadata
+     * @param parallelism       maximum number of threads to parse default metadata and combine batches on
+     */
+    public PropertiesMetadataParser(AnimationMode animationMode, int parallelism) {
+        this(animationMode, CombineMode.LAYERED, parallelism);
+    }
+
+    /**
+     * Creates a new parser.
+     * @param animationMode     determines which properties from animation files are retained in the metadata
+     * @param combineMode       determines how views from several metadata files are combined
+     */
+    PropertiesMetadataParser(AnimationMode animationMode, CombineMode combineMode) {
+        this(animationMode, combineMode, DEFAULT_BATCH_PARALLELISM);
+    }
+
+    /**
+     * Creates a new parser.
+     * @param animationMode     determines which properties from animation files are retained in the metadata
+     * @param combineMode       determines how views from several metadata files are combined
+     * @param parallelism       maximum number of threads to parse default metadata and combine batches on
+     */
+    PropertiesMetadataParser(AnimationMode animationMode, CombineMode combineMode, int parallelism) {
+        ANIMATION_MODE = requireNonNull(animationMode, "Animation mode cannot be null");
+        COMBINE_MODE = requireNonNull(combineMode, "Combine mode cannot be null");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        PARALLELISM = parallelism;
+
+        /* Workers are daemon threads that are only started when a batch needs them and exit after they have
+           been idle for a while, so a parser that never runs a batch in parallel never starts a thread. */
+        BATCH_POOL = new ForkJoinPool(parallelism);
+
+        // States are only kept as long as the results they were combined into
+        COMBINE_STATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+        // Scopes are only kept as long as the repository of their reload
+        RELOAD_SCOPES = new WeakHashMap<>();
+        latestScope = new WeakReference<>(null);
+    }
 
     @Override
     public Map<ResourceLocation, MetadataView> parse(ResourceLocation metadataLocation, InputStream metadataStream,
                                                      ResourceRepository repository)
             throws InvalidMetadataException {
-        Pair<Properties, Map<String, PropertiesMetadataView.Value>> initRead = readProperties(metadataStream);
-        Properties props = initRead.getFirst();
-        Map<String, PropertiesMetadataView.Value> metadata = initRead.getSecond();
 
-        if (metadataLocation.equals(EMISSIVE_CONFIG)) {
-            return readEmissiveFile(props, repository);
+        // Reject unsupported files before reading any of their contents
+        if (!isSupported(metadataLocation)) {
+            throw new InvalidMetadataException(String.format("Support is not yet implemented for the OptiFine " +
+                    "properties file %s. If you're looking to implement a plugin that uses this file, feel free to " +
+                    "submit a PR!", metadataLocation), true);
         }
 
-        if (metadataLocation.getPath().startsWith(ANIMATION_PATH_START)) {
-            return readNonRootAnimationFile(metadata, props, metadataLocation, repository);
+        ReloadScope scope = reloadScope(repository);
+        if (metadataLocation.equals(EMISSIVE_CONFIG)) {
+            return readEmissiveFile(readProperties(metadataStream), repository, COMBINE_MODE, scope, BATCH_POOL);
         }
 
-        throw new InvalidMetadataException(String.format("Support is not yet implemented for the OptiFine properties " +
-                "file %s. If you're looking to implement a plugin that uses this file, feel free to submit a PR!",
-                metadataLocation), true);
+        return readNonRootAnimationFile(
+                readAnimationProperties(metadataStream, ANIMATION_MODE, scope),
+                metadataLocation,
+                repository
+        );
     }
 
     @Override
     public Map<? extends RootResourceName, ? extends Map<? extends RootResourceName, ? extends MetadataView>> parse(
             ResourceRepository.Pack pack) {
         Map<RootResourceName, Map<RootResourceName, MetadataView>> anims = new HashMap<>();
+        ReloadScope latest = latestScope.get();
+        ReloadScope scope = latest == null ? new ReloadScope(null) : latest;
         int index = 0;
 
         while (true) {
@@ -101,16 +174,15 @@ public final class PropertiesMetadataParser implements MetadataParser {
                 break;
             }
 
-            Pair<Properties, Map<String, PropertiesMetadataView.Value>> initRead;
+            AnimationProperties props;
             try {
-                initRead = readProperties(animStream.get());
+                props = readAnimationProperties(animStream.get(), ANIMATION_MODE, scope);
             } catch (InvalidMetadataException err) {
                 LogManager.getLogger().error("Bad root animation file {}: {}", animName, err);
                 break;
             }
 
-            Properties props = initRead.getFirst();
-            Map<String, PropertiesMetadataView.Value> metadata = initRead.getSecond();
+            TokenTableView.Builder metadata = props.metadata();
 
             ResourceLocation imageLocation = pack.locateRootResource(imageName);
             pack.resource(imageLocation).ifPresent((imageStream) -> metadata.put(
@@ -129,138 +201,310 @@ public final class PropertiesMetadataParser implements MetadataParser {
     public MetadataView combine(ResourceLocation textureLocation,
                                 Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation)
             throws InvalidMetadataException {
-        Set<String> sections = new HashSet<>();
-        for (MetadataView view : metadataByLocation.values()) {
-            for (String section : view.keys()) {
-                if (!section.equals(ANIMATION_SECTION) && !sections.add(section)) {
-                    throw new InvalidMetadataException("Conflicting key " + section + " provided by two metadata files");
-                }
+        if (metadataByLocation.size() == 1) {
+            return combineSingle(metadataByLocation.values().iterator().next());
+        }
+
+        return combine(CombineState.build(metadataByLocation), metadataByLocation);
+    }
+
+    /**
+     * Combines the metadata of many textures at once, such as all textures in a reload. Textures are
+     * combined in parallel on this parser's pool of threads. An error in one texture's metadata does not
+     * prevent the other textures from being combined, and all errors are reported together.
+     * @param metadataByTexture     metadata of every file that contributes to each texture
+     * @return combined view or error for every texture, ordered by texture location
+     */
+    public BatchCombineResult combineAll(Map<? extends ResourceLocation, ? extends Map<? extends ResourceLocation,
+            ? extends MetadataView>> metadataByTexture) {
+        return combineAll(metadataByTexture, PARALLELISM);
+    }
+
+    /**
+     * Combines the metadata of many textures at once, such as all textures in a reload. Textures are split
+     * into at most the given number of ranges, which are combined in parallel on this parser's pool of threads.
+     * No more threads are used than the parser was created with. An error in one texture's metadata does not
+     * prevent the other textures from being combined, and all errors are reported together.
+     * @param metadataByTexture     metadata of every file that contributes to each texture
+     * @param parallelism           maximum number of threads to combine metadata on, which is further limited
+     *                              by the parser's parallelism
+     * @return combined view or error for every texture, ordered by texture location
+     */
+    public BatchCombineResult combineAll(Map<? extends ResourceLocation, ? extends Map<? extends ResourceLocation,
+            ? extends MetadataView>> metadataByTexture, int parallelism) {
+        requireNonNull(metadataByTexture, "Metadata cannot be null");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        ResourceLocation[] textures = metadataByTexture.keySet().toArray(new ResourceLocation[0]);
+        Arrays.sort(textures);
+
+        MetadataView[] views = new MetadataView[textures.length];
+        InvalidMetadataException[] errors = new InvalidMetadataException[textures.length];
+        int ranges = rangeCount(textures.length, BATCH_SIZE, parallelism);
+        BatchCombineTask task = new BatchCombineTask(metadataByTexture, textures, views, errors, 0,
+                textures.length, ranges);
+
+        if (ranges == 1) {
+            task.combineRange();
+        } else {
+            BATCH_POOL.invoke(task);
+        }
+
+        ImmutableMap.Builder<ResourceLocation, MetadataView> viewsByTexture = ImmutableMap.builder();
+        ImmutableMap.Builder<ResourceLocation, InvalidMetadataException> errorsByTexture = ImmutableMap.builder();
+        for (int index = 0; index < textures.length; index++) {
+            if (errors[index] != null) {
+                errorsByTexture.put(textures[index], errors[index]);
+            } else {
+                viewsByTexture.put(textures[index], views[index]);
             }
         }
 
-        // Combine all animations together into one view
-        List<PropertiesMetadataView.Value> animations = metadataByLocation.values().stream()
-                .filter((view) -> view.subView(ANIMATION_SECTION).isPresent())
-                .map((view) -> view.subView(ANIMATION_SECTION).orElseThrow())
-                .filter((view) -> view.subView(PARTS_KEY).isPresent())
-                .map((view) -> view.subView(PARTS_KEY).orElseThrow())
-                .flatMap((view) -> IntStream.range(0, view.size()).mapToObj(view::subView))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(PropertiesMetadataView.Value::new)
-                .toList();
-
-        ImmutableMap<String, PropertiesMetadataView.Value> combinedAnimations = ImmutableMap.copyOf(
-                IntStream.range(0, animations.size())
-                        .mapToObj((index) -> Pair.of(String.valueOf(index), animations.get(index)))
-                        .collect(Collectors.toMap(
-                                Pair::getFirst,
-                                Pair::getSecond
-                        ))
+        return new BatchCombineResult(viewsByTexture.build(), errorsByTexture.build());
+    }
+
+    /**
+     * Combines the metadata of one texture. All animation parts are combined into one view that comes
+     * before the contributing views, which are ordered by their locations.
+     * @param state                 state of the texture's contributing files
+     * @param metadataByLocation    metadata of every file that contributes to the texture
+     * @return combined metadata view
+     */
+    private MetadataView combine(CombineState state,
+                                 Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation) {
+        MetadataView[] allViews = state.sortedViews(metadataByLocation, 1);
+        allViews[0] = combinedAnimationView(state.parts(metadataByLocation));
+        return combineViews(Arrays.asList(allViews), COMBINE_MODE);
+    }
+
+    /**
+     * Combines the metadata of a texture with only one contributing file. One view cannot conflict with
+     * another, so no state is built to find conflicts. The result is the same as combining through a state.
+     * @param view      metadata of the only file that contributes to the texture
+     * @return combined metadata view
+     */
+    private MetadataView combineSingle(MetadataView view) {
+        return combineViews(
+                ImmutableList.of(combinedAnimationView(CombineState.readParts(view)), view),
+                COMBINE_MODE
         );
+    }
 
-        ImmutableMap<String, PropertiesMetadataView.Value> animationSection;
-        if (!combinedAnimations.isEmpty()) {
-            animationSection = ImmutableMap.of(
-                    ANIMATION_SECTION, new PropertiesMetadataView.Value(new PropertiesMetadataView(
-                            ImmutableMap.of(
-                                    PARTS_KEY,
-                                    new PropertiesMetadataView.Value(
-                                            new PropertiesMetadataView(combinedAnimations)
-                                    )
-                            )
-                    ))
+    /**
+     * Combines metadata again after only some of the files that contribute to a texture changed. Views
+     * that did not change are not read again, and their animation parts are reused from the previous
+     * result. The result is the same as calling {@link #combine(ResourceLocation, Map)} with the same
+     * metadata. If the previous result was not created by this method, all metadata is combined from scratch.
+     * @param textureLocation       location of the texture whose metadata is being combined
+     * @param previousResult        result of the last time this texture's metadata was combined, or null if none
+     * @param metadataByLocation    metadata of every file that contributes to the texture after the change
+     * @param changedLocations      locations of files that were added, removed, or changed since the previous result
+     * @return combined metadata view
+     * @throws InvalidMetadataException if two views contribute the same section
+     */
+    public MetadataView combine(ResourceLocation textureLocation, MetadataView previousResult,
+                                Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation,
+                                Set<? extends ResourceLocation> changedLocations)
+            throws InvalidMetadataException {
+        requireNonNull(metadataByLocation, "Metadata cannot be null");
+        requireNonNull(changedLocations, "Changed locations cannot be null");
+
+        CombineState previousState = previousResult == null ? null : COMBINE_STATES.get(previousResult);
+        CombineState state = previousState == null
+                ? CombineState.build(metadataByLocation)
+                : previousState.update(metadataByLocation, changedLocations);
+
+        MetadataView result = combine(state, metadataByLocation);
+        COMBINE_STATES.put(result, state);
+        return result;
+    }
+
+    /**
+     * Checks whether a .properties file is supported by this parser using only its location.
+     * Unsupported files do not need to be opened, as {@link #parse(ResourceLocation, InputStream, ResourceRepository)}
+     * rejects them without reading their contents.
+     * @param metadataLocation      location of the .properties file
+     * @return true if the file may contain metadata for this parser, false otherwise
+     */
+    private static boolean isSupported(ResourceLocation metadataLocation) {
+        return metadataLocation.equals(EMISSIVE_CONFIG) || metadataLocation.getPath().startsWith(ANIMATION_PATH_START);
+    }
+
+    /**
+     * Gets the state shared by all files read during the same resource reload. Each reload provides a
+     * new repository, so a new scope is started whenever a different repository is seen. A scope is only
+     * strongly reachable through its repository, so it is released along with the reload's resources
+     * instead of being kept until the next reload.
+     * @param repository        repository of the file being read
+     * @return state for the current reload
+     */
+    private ReloadScope reloadScope(ResourceRepository repository) {
+        ReloadScope scope = latestScope.get();
+        if (scope != null && scope.REPOSITORY.get() == repository) {
+            return scope;
+        }
+
+        synchronized (this) {
+            scope = RELOAD_SCOPES.get(repository);
+            if (scope == null) {
+                logStatistics(latestScope.get());
+                scope = new ReloadScope(repository);
+                RELOAD_SCOPES.put(repository, scope);
+            }
+
+            latestScope = new WeakReference<>(scope);
+            return scope;
+        }
+    }
+
+    /**
+     * Logs how effective the shared state of a reload was, if that reload's scope has not been released.
+     * @param scope         scope of the reload or null if it was already released
+     */
+    private static void logStatistics(ReloadScope scope) {
+        if (scope == null) {
+            return;
+        }
+
+        LogManager.getLogger().debug(
+                "Shared {} of {} short property values during the last reload",
+                scope.VALUE_POOL.hits(),
+                scope.VALUE_POOL.hits() + scope.VALUE_POOL.misses()
+        );
+
+        LogManager.getLogger().debug(
+                "Reused {} of {} default metadata files during the last reload",
+                scope.METADATA_CACHE.hits(),
+                scope.METADATA_CACHE.hits() + scope.METADATA_CACHE.misses()
+        );
+
+        MetadataIndex metadataIndex = scope.metadataIndex();
+        if (metadataIndex != null) {
+            LogManager.getLogger().debug(
+                    "Skipped {} of {} default metadata searches during the last reload",
+                    metadataIndex.skipped(),
+                    metadataIndex.skipped() + metadataIndex.searched()
             );
-        } else {
-            animationSection = ImmutableMap.of();
         }
+    }
 
-        MetadataView combinedAnimationView = new PropertiesMetadataView(animationSection);
+    /**
+     * Creates a view with all animation parts from all files that contribute to a texture.
+     * @param animations            all animation parts
+     * @return view of the combined animation or an empty view if there are no parts
+     */
+    private static MetadataView combinedAnimationView(PropertiesMetadataView.Value[] animations) {
+        if (animations.length == 0) {
+            return PropertiesMetadataView.EMPTY;
+        }
 
-        // Include other views to avoid losing non-animation sections
-        List<? extends MetadataView> sortedViews = metadataByLocation.keySet().stream()
-                .sorted()
-                .map(metadataByLocation::get)
-                .toList();
-        List<MetadataView> allViews = new ArrayList<>(sortedViews);
-        allViews.add(0, combinedAnimationView);
+        return new PropertiesMetadataView(
+                ANIMATION_SECTION, new PropertiesMetadataView.Value(new PropertiesMetadataView(
+                        PARTS_KEY,
+                        new PropertiesMetadataView.Value(new ListMetadataView(animations))
+                ))
+        );
+    }
 
-        return new CombinedMetadataView(allViews);
+    /**
+     * Combines several views into one. Views earlier in the list take precedence.
+     * @param views                 views to combine
+     * @param combineMode           determines how the views are combined
+     * @return combined view
+     */
+    private static MetadataView combineViews(List<? extends MetadataView> views, CombineMode combineMode) {
+        return switch (combineMode) {
+            case LAYERED -> new CombinedMetadataView(views);
+            case FLATTENED -> new FlattenedMetadataView(views);
+        };
     }
 
     /**
-     * Reads all properties and adds them directly to the metadata.
+     * Reads all properties from a stream.
      * @param metadataStream        metadata stream to read properties from
-     * @return read properties and initial metadata
+     * @return read properties
      * @throws InvalidMetadataException if the properties could not be read from the stream
      */
-    private static Pair<Properties, Map<String, PropertiesMetadataView.Value>> readProperties(InputStream metadataStream)
+    private static Map<String, String> readProperties(InputStream metadataStream)
             throws InvalidMetadataException {
-        Properties props = new Properties();
         try {
-            props.load(metadataStream);
+            return PropertiesReader.read(metadataStream);
         } catch (IOException err) {
             throw new InvalidMetadataException(
                     String.format("Unable to load properties file: %s", err.getMessage())
             );
         }
+    }
 
-        Map<String, PropertiesMetadataView.Value> metadata = new HashMap<>();
-        putAll(metadata, props);
+    /**
+     * Reads all properties from an animation file stream.
+     * @param metadataStream        metadata stream to read properties from
+     * @param mode                  determines which properties are retained
+     * @param scope                 shared state for the current reload
+     * @return read animation properties
+     * @throws InvalidMetadataException if the properties could not be read from the stream
+     */
+    private static AnimationProperties readAnimationProperties(InputStream metadataStream, AnimationMode mode,
+                                                               ReloadScope scope)
+            throws InvalidMetadataException {
+        PropertiesTokens tokens;
+        try {
+            tokens = PropertiesReader.tokenize(metadataStream);
+        } catch (IOException err) {
+            throw new InvalidMetadataException(
+                    String.format("Unable to load properties file: %s", err.getMessage())
+            );
+        }
 
-        return Pair.of(props, metadata);
+        return new AnimationProperties(tokens, mode, scope.SYMBOLS, scope.VALUE_POOL);
     }
 
     /**
-     * Reads metadata from an emissive textures file.
+     * Reads metadata from an emissive textures file. The default metadata of the overlays and their textures
+     * is read in parallel, but the results are the same as reading it in order of the overlays' locations.
      * @param props                 all read properties
      * @param repository            resource repository to search in
+     * @param combineMode           determines how default metadata is combined with the overlay metadata
+     * @param scope                 state for the current reload
+     * @param pool                  pool to parse default metadata on, whose parallelism limits the number of ranges
      * @return all metadata from an emissive textures files
      */
-    private static Map<ResourceLocation, MetadataView> readEmissiveFile(Properties props, ResourceRepository repository)
+    private static Map<ResourceLocation, MetadataView> readEmissiveFile(Map<String, String> props,
+                                                                        ResourceRepository repository,
+                                                                        CombineMode combineMode,
+                                                                        ReloadScope scope,
+                                                                        ForkJoinPool pool)
             throws InvalidMetadataException {
-        String emissiveSuffix = require(props, "suffix.emissive") + ".png";
-
-        Function<ResourceLocation, MetadataView> overlayToView = (overlayLocation) -> new PropertiesMetadataView(
-                ImmutableMap.of(
-                        OVERLAY_SECTION,
-                        new PropertiesMetadataView.Value(new PropertiesMetadataView(
-                                ImmutableMap.of(
-                                        "texture",
-                                        new PropertiesMetadataView.Value(overlayLocation.toString()),
-                                        "emissive",
-                                        new PropertiesMetadataView.Value("true")
-                                )
-                        )
-                        )
-                )
-        );
-
-        Map<ResourceLocation, MetadataView> results = new HashMap<>();
-        repository.list((fileName) -> fileName.endsWith(emissiveSuffix))
-                .forEach((overlayLocation) -> {
-                    ResourceLocation baseLocation = textureFromOverlay(overlayLocation, emissiveSuffix);
-                    results.put(
-                            baseLocation,
-                            addDefaultMetadata(
-                                    baseLocation,
-                                    overlayToView.apply(overlayLocation),
-                                    repository
-                            )
-                    );
-
-                    MetadataView overlayMetadata = addDefaultMetadata(
-                            overlayLocation,
-                            new PropertiesMetadataView(ImmutableMap.of()),
-                            repository
-                    );
+        String emissiveSuffix = require(props, "suffix.emissive") + TEXTURE_EXTENSION;
+
+        ResourceLocation[] overlays = scope.texturesEndingWith(repository, emissiveSuffix)
+                .toArray(new ResourceLocation[0]);
+        Arrays.sort(overlays);
+
+        // Repositories are not required to be thread-safe, so only the parsing happens in parallel
+        MetadataIndex metadataIndex = scope.metadataIndex();
+        DefaultMetadataCache.CachedFile[] textureMetadata = new DefaultMetadataCache.CachedFile[overlays.length];
+        DefaultMetadataCache.CachedFile[] overlayMetadata = new DefaultMetadataCache.CachedFile[overlays.length];
+        for (int index = 0; index < overlays.length; index++) {
+            textureMetadata[index] = readDefaultMetadata(textureFromOverlay(overlays[index], emissiveSuffix),
+                    repository, metadataIndex, scope.METADATA_CACHE);
+            overlayMetadata[index] = readDefaultMetadata(overlays[index], repository, metadataIndex,
+                    scope.METADATA_CACHE);
+        }
 
-                    if (overlayMetadata.size() > 0) {
-                        results.put(overlayLocation, overlayMetadata);
-                    }
-                });
+        int ranges = rangeCount(overlays.length, OVERLAY_BATCH_SIZE, pool.getParallelism());
+        DefaultMetadataTask task = new DefaultMetadataTask(textureMetadata, overlayMetadata, combineMode,
+                emissiveSuffix, overlays, new MetadataView[overlays.length], new MetadataView[overlays.length],
+                0, overlays.length, ranges);
+        if (ranges == 1) {
+            task.readRange();
+        } else {
+            pool.invoke(task);
+        }
 
-        return results;
+        return task.results();
     }
 
     /**
@@ -272,69 +516,101 @@ public final class PropertiesMetadataParser implements MetadataParser {
     private static ResourceLocation textureFromOverlay(ResourceLocation overlayLocation, String emissiveSuffix) {
         return new ResourceLocation(
                 overlayLocation.getNamespace(),
-                overlayLocation.getPath().replace(emissiveSuffix, ".png")
+                overlayLocation.getPath().replace(emissiveSuffix, TEXTURE_EXTENSION)
         );
     }
 
     /**
-     * Adds metadata from Minecraft's default .mcmeta files if present.
-     * @param textureLocation       location of the texture whose metadata is being processed
-     * @param currentView           current metadata for the texture
+     * Counts how many ranges a batch is split into. Each range holds at least one full batch, unless there is
+     * only one range, and there are never more ranges than threads that may work on them.
+     * @param size                  number of items in the batch
+     * @param batchSize             minimum number of items worth combining on another thread
+     * @param parallelism           maximum number of threads to work on the batch
+     * @return number of ranges, which is 1 if the batch should be handled on the calling thread
+     */
+    private static int rangeCount(int size, int batchSize, int parallelism) {
+        return Math.max(1, Math.min(parallelism, size / batchSize));
+    }
+
+    /**
+     * Reads Minecraft's default .mcmeta file for a texture if present.
+     * @param textureLocation       location of the texture whose metadata is being read
      * @param repository            resource repository to search in
-     * @return given metadata with default metadata added, if any
+     * @param metadataIndex         all default metadata files in the repository
+     * @param metadataCache         default metadata already read during the current reload
+     * @return the default metadata file or null if there is none
      */
-    private static MetadataView addDefaultMetadata(ResourceLocation textureLocation, MetadataView currentView,
-                                                   ResourceRepository repository) {
+    private static DefaultMetadataCache.CachedFile readDefaultMetadata(ResourceLocation textureLocation,
+                                                                       ResourceRepository repository,
+                                                                       MetadataIndex metadataIndex,
+                                                                       DefaultMetadataCache metadataCache) {
         ResourceLocation metadataLocation = new ResourceLocation(
                 textureLocation.getNamespace(),
-                textureLocation.getPath() + ".mcmeta"
+                textureLocation.getPath() + METADATA_EXTENSION
         );
 
-        // Add default metadata if it exists
-        Optional<ResourceRepository.Pack> packOptional = repository.highestPackWith(metadataLocation, textureLocation);
-        if (packOptional.isPresent()) {
-            ResourceRepository.Pack pack = packOptional.get();
-            InputStream metadataStream = pack.resource(metadataLocation).orElseThrow();
+        // Most textures have no default metadata, so avoid searching every pack for it
+        if (!metadataIndex.contains(metadataLocation)) {
+            return null;
+        }
 
-            BufferedReader bufferedReader = null;
+        Optional<ResourceRepository.Pack> packOptional = repository.highestPackWith(metadataLocation, textureLocation);
+        if (packOptional.isEmpty()) {
+            return null;
+        }
 
-            try {
-                bufferedReader = new BufferedReader(new InputStreamReader(metadataStream, StandardCharsets.UTF_8));
-                JsonObject metadataObject = GsonHelper.parse(bufferedReader);
+        return metadataCache.read(packOptional.get(), metadataLocation);
+    }
 
-                /* Parsed "animation" metadata will be under the "animation" section directly, not "animation" and
-                   then the "parts" sub view. This means that the default animation will be ignored during
-                   combination if there are .properties animations. */
-                MetadataView defaultView = new JsonMetadataView(metadataObject, String::compareTo);
-                return new CombinedMetadataView(ImmutableList.of(currentView, defaultView));
+    /**
+     * Adds metadata from Minecraft's default .mcmeta files if present.
+     * @param currentView           current metadata for the texture
+     * @param defaultMetadata       the texture's default metadata file or null if there is none
+     * @param combineMode           determines how the default metadata is combined with the current metadata
+     * @return given metadata with default metadata added, if any
+     */
+    private static MetadataView addDefaultMetadata(MetadataView currentView,
+                                                   DefaultMetadataCache.CachedFile defaultMetadata,
+                                                   CombineMode combineMode) {
+        if (defaultMetadata == null) {
+            return currentView;
+        }
 
-            } catch (JsonParseException parseError) {
+        Optional<MetadataView> defaultView = defaultMetadata.view();
 
-                // Ignore invalid default metadata
-                return currentView;
+        // Ignore invalid default metadata
+        if (defaultView.isEmpty()) {
+            return currentView;
+        }
 
-            } finally {
-                IOUtils.closeQuietly(bufferedReader);
-            }
+        if (currentView.size() == 0) {
+            return defaultView.get();
         }
 
-        return currentView;
+        return combineViews(ImmutableList.of(currentView, defaultView.get()), combineMode);
     }
 
     /**
      * Reads metadata from an animation file that is not at the root of a resource pack.
-     * @param metadata              key-to-property map pre-filled with all properties in the file
      * @param props                 all read properties
      * @param metadataLocation      location of the animation file
      * @return all metadata from the animation file
      */
     private static Map<ResourceLocation, MetadataView> readNonRootAnimationFile(
-            Map<String, PropertiesMetadataView.Value> metadata, Properties props,
-            ResourceLocation metadataLocation, ResourceRepository repository) throws InvalidMetadataException {
-        ResourceLocation to = convertToLocation(require(props, "to"), metadataLocation);
+            AnimationProperties props, ResourceLocation metadataLocation, ResourceRepository repository)
+            throws InvalidMetadataException {
+        Optional<String> toPath = props.to();
+        if (toPath.isEmpty()) {
+            throw new InvalidMetadataException("Missing required key: to");
+        }
+
+        ResourceLocation to = convertToLocation(toPath.get(), metadataLocation);
+
+        TokenTableView.Builder metadata = props.metadata();
 
-        if (props.containsKey("from")) {
-            ResourceLocation from = convertToLocation(props.getProperty("from"), metadataLocation);
+        Optional<String> fromPath = props.from();
+        if (fromPath.isPresent()) {
+            ResourceLocation from = convertToLocation(fromPath.get(), metadataLocation);
             InputStream fromStream = findTextureStream(from, repository);
             metadata.put("texture", new PropertiesMetadataView.Value(fromStream));
         }
@@ -347,33 +623,21 @@ public final class PropertiesMetadataParser implements MetadataParser {
 
     /**
      * Reads metadata common to both root and non-root animations from a file.
-     * @param metadata              key-to-property map pre-filled with all properties in the file
+     * @param metadata              builder pre-filled with all retained properties in the file
      * @param props                 all read properties
      * @return all metadata from the animation file
      */
-    private static MetadataView readAnimationFile(Map<String, PropertiesMetadataView.Value> metadata, Properties props) {
-        putIfValPresent(metadata, props, "w", "width", Function.identity());
-        putIfValPresent(metadata, props, "h", "height", Function.identity());
-        putIfValPresent(metadata, props, "duration", "frametime", Function.identity());
-        buildFrameList(props).ifPresent((value) -> metadata.put("frames", value));
+    private static MetadataView readAnimationFile(TokenTableView.Builder metadata, AnimationProperties props) {
+        props.frames().ifPresent((frames) -> metadata.put("frames", new PropertiesMetadataView.Value(frames)));
 
         return new PropertiesMetadataView(
-                ImmutableMap.of(
-                        "animation",
-                        new PropertiesMetadataView.Value(new PropertiesMetadataView(
-                                ImmutableMap.of(
-                                        PARTS_KEY,
-                                        new PropertiesMetadataView.Value(new PropertiesMetadataView(
-                                                ImmutableMap.of(
-                                                        "0",
-                                                        new PropertiesMetadataView.Value(new PropertiesMetadataView(
-                                                                ImmutableMap.copyOf(metadata)
-                                                        ))
-                                                )
-                                        ))
-                                )
+                ANIMATION_SECTION,
+                new PropertiesMetadataView.Value(new PropertiesMetadataView(
+                        PARTS_KEY,
+                        new PropertiesMetadataView.Value(new ListMetadataView(
+                                new PropertiesMetadataView.Value(metadata.build())
                         ))
-                )
+                ))
         );
     }
 
@@ -399,85 +663,6 @@ public final class PropertiesMetadataParser implements MetadataParser {
         return textureOptional.get();
     }
 
-    /**
-     * Builds a list of animation frames, if properties for individual frames is present.
-     * @param props     all properties read
-     * @return list of animation frames or {@link Optional#empty()} if there are no individual frame settings
-     */
-    private static Optional<PropertiesMetadataView.Value> buildFrameList(Properties props) {
-        Optional<Integer> maxDefinedTick = props.stringPropertyNames().stream()
-                .filter((propName) -> propName.matches("(duration|tile)\\.\\d+"))
-                .map((propName) -> Integer.parseInt(propName.substring(propName.indexOf('.') + 1)))
-                .max(Integer::compareTo);
-        if (maxDefinedTick.isEmpty()) {
-            return Optional.empty();
-        }
-
-        ImmutableMap.Builder<String, PropertiesMetadataView.Value> builder = new ImmutableMap.Builder<>();
-
-        for (int index = 0; index <= maxDefinedTick.get(); index++) {
-            String durationKey = "duration." + index;
-            String tileKey = "tile." + index;
-
-            ImmutableMap.Builder<String, PropertiesMetadataView.Value> frame = new ImmutableMap.Builder<>();
-
-            if (props.containsKey(durationKey)) {
-                frame.put(
-                        "time",
-                        new PropertiesMetadataView.Value(
-                                (String) props.get(durationKey)
-                        )
-                );
-            }
-
-            frame.put(
-                    "index",
-                    new PropertiesMetadataView.Value(
-                            (String) props.getOrDefault(tileKey, String.valueOf(index))
-                    )
-            );
-
-            builder.put(
-                    String.valueOf(index),
-                    new PropertiesMetadataView.Value(new PropertiesMetadataView(frame.build()))
-            );
-        }
-
-        return Optional.of(new PropertiesMetadataView.Value(
-                new PropertiesMetadataView(builder.build())
-        ));
-    }
-
-    /**
-     * Adds a transformed value to the sub view, if it exists.
-     * @param builder           builder to add properties to
-     * @param props             all properties read
-     * @param sourceKey         key of the property to retrieve
-     * @param destinationKey    key of the transformed property that will be added to the builder
-     * @param transformer       function to transform the value (only called if the value is non-null)
-     */
-    private static void putIfValPresent(Map<String, PropertiesMetadataView.Value> builder,
-                                        Properties props, String sourceKey, String destinationKey,
-                                        Function<String, String> transformer) {
-        String value = props.getProperty(sourceKey);
-        if (value != null) {
-            value = transformer.apply(value);
-            builder.put(destinationKey, new PropertiesMetadataView.Value(value));
-        }
-    }
-
-    /**
-     * Puts all properties in the given metadata.
-     * @param metadata  map holding in-progress metadata
-     * @param props     all properties to put in the metadata
-     */
-    private static void putAll(Map<String, PropertiesMetadataView.Value> metadata,
-                               Properties props) {
-        for (Object key : props.keySet()) {
-            metadata.put((String) key, new PropertiesMetadataView.Value((String) props.get(key)));
-        }
-    }
-
     /**
      * Gets the parent of a file, assuming the file does not end with a slash.
      * @param path      path to the file
@@ -524,8 +709,8 @@ public final class PropertiesMetadataParser implements MetadataParser {
      * @return value of the property, if it exists
      * @throws InvalidMetadataException if the property is not present (value is null)
      */
-    private static String require(Properties properties, String key) throws InvalidMetadataException {
-        String property = (String) properties.get(key);
+    private static String require(Map<String, String> properties, String key) throws InvalidMetadataException {
+        String property = properties.get(key);
 
         if (property == null) {
             throw new InvalidMetadataException("Missing required key: " + key);
@@ -551,4 +736,304 @@ public final class PropertiesMetadataParser implements MetadataParser {
         }
     }
 
+    /**
+     * Combines the metadata of a range of textures in a batch, splitting the range into a fixed number of
+     * smaller ranges that run in parallel. Each task reuses the same scratch map to find conflicts in all of
+     * its textures.
+     * @author soir20
+     */
+    @SuppressWarnings("serial") // Tasks only live for one batch and are never serialized
+    private final class BatchCombineTask extends RecursiveAction {
+        private final Map<? extends ResourceLocation, ? extends Map<? extends ResourceLocation,
+                ? extends MetadataView>> METADATA_BY_TEXTURE;
+        private final ResourceLocation[] TEXTURES;
+        private final MetadataView[] VIEWS;
+        private final InvalidMetadataException[] ERRORS;
+        private final int START;
+        private final int END;
+        private final int RANGES;
+
+        /**
+         * Creates a new task.
+         * @param metadataByTexture     metadata of every file that contributes to each texture
+         * @param textures              all textures in the batch, in sorted order
+         * @param views                 receives the combined view of each texture at the texture's index
+         * @param errors                receives the error for each texture at the texture's index
+         * @param start                 index of the first texture to combine (inclusive)
+         * @param end                   index of the last texture to combine (exclusive)
+         * @param ranges                number of ranges to split this task's range into
+         */
+        public BatchCombineTask(Map<? extends ResourceLocation, ? extends Map<? extends ResourceLocation,
+                ? extends MetadataView>> metadataByTexture, ResourceLocation[] textures, MetadataView[] views,
+                                InvalidMetadataException[] errors, int start, int end, int ranges) {
+            METADATA_BY_TEXTURE = metadataByTexture;
+            TEXTURES = textures;
+            VIEWS = views;
+            ERRORS = errors;
+            START = start;
+            END = end;
+            RANGES = ranges;
+        }
+
+        @Override
+        protected void compute() {
+            if (RANGES == 1) {
+                combineRange();
+                return;
+            }
+
+            int leftRanges = RANGES / 2;
+            int middle = START + (int) ((long) (END - START) * leftRanges / RANGES);
+            invokeAll(
+                    new BatchCombineTask(METADATA_BY_TEXTURE, TEXTURES, VIEWS, ERRORS, START, middle, leftRanges),
+                    new BatchCombineTask(METADATA_BY_TEXTURE, TEXTURES, VIEWS, ERRORS, middle, END,
+                            RANGES - leftRanges)
+            );
+        }
+
+        /**
+         * Combines the metadata of every texture in this task's range on the current thread.
+         */
+        public void combineRange() {
+            Map<String, ResourceLocation> sectionOwners = new HashMap<>();
+            for (int index = START; index < END; index++) {
+                Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation =
+                        METADATA_BY_TEXTURE.get(TEXTURES[index]);
+                try {
+                    VIEWS[index] = metadataByLocation.size() == 1
+                            ? combineSingle(metadataByLocation.values().iterator().next())
+                            : combine(CombineState.buildOnce(metadataByLocation, sectionOwners), metadataByLocation);
+                } catch (InvalidMetadataException err) {
+                    ERRORS[index] = err;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the default metadata of a range of emissive overlays and their textures, splitting the range
+     * into a fixed number of smaller ranges that run in parallel. The files are read before the task starts,
+     * and files shared with earlier tasks in the same reload are only parsed once.
+     * @author soir20
+     */
+    @SuppressWarnings("serial") // Tasks only live for one batch and are never serialized
+    private static final class DefaultMetadataTask extends RecursiveAction {
+        private final DefaultMetadataCache.CachedFile[] TEXTURE_METADATA;
+        private final DefaultMetadataCache.CachedFile[] OVERLAY_METADATA;
+        private final CombineMode COMBINE_MODE;
+        private final String EMISSIVE_SUFFIX;
+        private final ResourceLocation[] OVERLAYS;
+        private final MetadataView[] TEXTURE_VIEWS;
+        private final MetadataView[] OVERLAY_VIEWS;
+        private final int START;
+        private final int END;
+        private final int RANGES;
+
+        /**
+         * Creates a new task.
+         * @param textureMetadata   default metadata file of each overlay's texture or null if it has none
+         * @param overlayMetadata   default metadata file of each overlay or null if it has none
+         * @param combineMode       determines how default metadata is combined with the overlay metadata
+         * @param emissiveSuffix    suffix of all overlays
+         * @param overlays          locations of all overlays, in sorted order
+         * @param textureViews      receives the view of each overlay's texture at the overlay's index
+         * @param overlayViews      receives the view of each overlay at the overlay's index
+         * @param start             index of the first overlay to read (inclusive)
+         * @param end               index of the last overlay to read (exclusive)
+         * @param ranges            number of ranges to split this task's range into
+         */
+        public DefaultMetadataTask(DefaultMetadataCache.CachedFile[] textureMetadata,
+                                   DefaultMetadataCache.CachedFile[] overlayMetadata, CombineMode combineMode,
+                                   String emissiveSuffix, ResourceLocation[] overlays, MetadataView[] textureViews,
+                                   MetadataView[] overlayViews, int start, int end, int ranges) {
+            TEXTURE_METADATA = textureMetadata;
+            OVERLAY_METADATA = overlayMetadata;
+            COMBINE_MODE = combineMode;
+            EMISSIVE_SUFFIX = emissiveSuffix;
+            OVERLAYS = overlays;
+            TEXTURE_VIEWS = textureViews;
+            OVERLAY_VIEWS = overlayViews;
+            START = start;
+            END = end;
+            RANGES = ranges;
+        }
+
+        @Override
+        protected void compute() {
+            if (RANGES == 1) {
+                readRange();
+                return;
+            }
+
+            int leftRanges = RANGES / 2;
+            int middle = START + (int) ((long) (END - START) * leftRanges / RANGES);
+            invokeAll(
+                    new DefaultMetadataTask(TEXTURE_METADATA, OVERLAY_METADATA, COMBINE_MODE, EMISSIVE_SUFFIX,
+                            OVERLAYS, TEXTURE_VIEWS, OVERLAY_VIEWS, START, middle, leftRanges),
+                    new DefaultMetadataTask(TEXTURE_METADATA, OVERLAY_METADATA, COMBINE_MODE, EMISSIVE_SUFFIX,
+                            OVERLAYS, TEXTURE_VIEWS, OVERLAY_VIEWS, middle, END, RANGES - leftRanges)
+            );
+        }
+
+        /**
+         * Parses the default metadata of every overlay in this task's range on the current thread.
+         */
+        public void readRange() {
+            for (int index = START; index < END; index++) {
+                TEXTURE_VIEWS[index] = addDefaultMetadata(
+                        new EmissiveOverlayView(OVERLAYS[index].toString()),
+                        TEXTURE_METADATA[index],
+                        COMBINE_MODE
+                );
+                OVERLAY_VIEWS[index] = addDefaultMetadata(
+                        PropertiesMetadataView.EMPTY,
+                        OVERLAY_METADATA[index],
+                        COMBINE_MODE
+                );
+            }
+        }
+
+        /**
+         * Collects the views read by all tasks in order of the overlays' locations. Overlays without
+         * default metadata are left out.
+         * @return view of every texture and overlay with metadata
+         */
+        public Map<ResourceLocation, MetadataView> results() {
+            Map<ResourceLocation, MetadataView> results = new HashMap<>();
+            for (int index = 0; index < OVERLAYS.length; index++) {
+                results.put(textureFromOverlay(OVERLAYS[index], EMISSIVE_SUFFIX), TEXTURE_VIEWS[index]);
+                if (OVERLAY_VIEWS[index].size() > 0) {
+                    results.put(OVERLAYS[index], OVERLAY_VIEWS[index]);
+                }
+            }
+
+            return results;
+        }
+    }
+
+    /**
+     * State shared by all files read during one resource reload. The repository is only weakly
+     * referenced so that the scope does not keep its reload's resources alive.
+     * @author soir20
+     */
+    private static final class ReloadScope {
+        private final WeakReference<ResourceRepository> REPOSITORY;
+        private final KeySymbols SYMBOLS;
+        private final ValuePool VALUE_POOL;
+        private final DefaultMetadataCache METADATA_CACHE;
+        private SuffixIndex textureIndex;
+        private MetadataIndex metadataIndex;
+
+        /**
+         * Creates a new scope for a reload.
+         * @param repository        repository provided during the reload or null if it is unknown
+         */
+        public ReloadScope(ResourceRepository repository) {
+            REPOSITORY = new WeakReference<>(repository);
+            SYMBOLS = new KeySymbols();
+            VALUE_POOL = new ValuePool();
+            METADATA_CACHE = new DefaultMetadataCache();
+        }
+
+        /**
+         * Finds all textures whose file names end with a suffix. The first search lists all textures and
+         * default metadata files once, into an index of textures by suffix and {@link #metadataIndex()}.
+         * Later searches in the same reload only use the index.
+         * @param repository        repository of the current reload
+         * @param suffix            suffix of the textures to find
+         * @return all textures ending with the suffix
+         */
+        public synchronized Collection<? extends ResourceLocation> texturesEndingWith(ResourceRepository repository,
+                                                                                      String suffix) {
+
+            /* The index compares the ends of full paths, while the repository filters file names. They only
+               agree when the suffix cannot span a directory. */
+            if (suffix.indexOf('/') >= 0) {
+                indexResources(repository);
+                return repository.list((fileName) -> fileName.endsWith(suffix));
+            }
+
+            return indexResources(repository).endingWith(suffix);
+        }
+
+        /**
+         * Lists all textures and default metadata files in the repository to index them, if they have not
+         * been indexed yet.
+         * @param repository        repository of the current reload
+         * @return index of all textures by suffix
+         */
+        private SuffixIndex indexResources(ResourceRepository repository) {
+            if (textureIndex != null) {
+                return textureIndex;
+            }
+
+            List<ResourceLocation> textures = new ArrayList<>();
+            List<ResourceLocation> metadataFiles = new ArrayList<>();
+            for (ResourceLocation location : repository.list((fileName) -> fileName.endsWith(TEXTURE_EXTENSION)
+                    || fileName.endsWith(METADATA_EXTENSION))) {
+                if (location.getPath().endsWith(METADATA_EXTENSION)) {
+                    metadataFiles.add(location);
+                } else {
+                    textures.add(location);
+                }
+            }
+
+            textureIndex = new SuffixIndex(textures);
+            metadataIndex = new MetadataIndex(metadataFiles);
+            return textureIndex;
+        }
+
+        /**
+         * Gets an index of all default metadata files in the repository.
+         * @return index of all default metadata files or null if no textures have been searched for yet
+         */
+        public synchronized MetadataIndex metadataIndex() {
+            return metadataIndex;
+        }
+    }
+
+    /**
+     * Determines which properties from animation files are retained in the metadata.
+     * @author soir20
+     */
+    public enum AnimationMode {
+        /**
+         * Retains every property in the file under its original key, along with the renamed
+         * properties and frame list that MoreMcmeta reads.
+         */
+        ALL_PROPERTIES,
+
+        /**
+         * Retains only the properties that MoreMcmeta reads from known OptiFine animation keys, plus
+         * any unknown keys. OptiFine keys that are renamed or consumed while parsing, including
+         * individual frame keys, are not retained.
+         */
+        SCHEMA_RETAIN_UNKNOWN,
+
+        /**
+         * Retains only the properties that MoreMcmeta reads from known OptiFine animation keys. Unknown
+         * keys are skipped.
+         */
+        SCHEMA_ONLY
+    }
+
+    /**
+     * Determines how views from several metadata files are combined. Both modes give the same results.
+     * The plugin itself always uses layered views.
+     * @author soir20
+     */
+    enum CombineMode {
+        /**
+         * Keeps each view as a layer, so every lookup checks the views in order of precedence.
+         */
+        LAYERED,
+
+        /**
+         * Decides which view owns each key once, when the views are combined, so every lookup only
+         * checks one view. Uses more memory than layered views when combining, but lookups are faster
+         * when many files are combined.
+         */
+        FLATTENED
+    }
+
 }
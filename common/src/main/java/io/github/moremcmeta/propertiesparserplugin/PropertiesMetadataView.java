@@ -17,13 +17,12 @@
 
 package io.github.moremcmeta.propertiesparserplugin;
 
-import com.google.common.collect.ImmutableMap;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
 
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
@@ -33,32 +32,60 @@ import static java.util.Objects.requireNonNull;
  * {@link MetadataView} implementation with an underlying .properties format.
  * @author soir20
  */
-public final class PropertiesMetadataView implements MetadataView {
-    private final Map<String, Value> PROPERTIES;
-    private final List<Value> VALUES_BY_INDEX;
+public final class PropertiesMetadataView extends ValueMetadataView {
+    static final PropertiesMetadataView EMPTY = new PropertiesMetadataView(Collections.emptyMap());
+    private static final long NOT_A_NUMBER = 1;
+
+    private final String[] KEYS;
+    private final Value[] VALUES;
+    private final int[] BUCKETS;
 
     /**
-     * Creates a new metadata view with the given properties at the root.
+     * Creates a new metadata view with the given properties at the root. Keys keep the iteration
+     * order of the given map.
      * @param root              the root properties object
      */
-    public PropertiesMetadataView(ImmutableMap<String, Value> root) {
-        PROPERTIES = requireNonNull(root, "Properties root cannot be null");
-        VALUES_BY_INDEX = new ArrayList<>(PROPERTIES.values());
+    public PropertiesMetadataView(Map<String, Value> root) {
+        requireNonNull(root, "Properties root cannot be null");
+
+        int size = root.size();
+        KEYS = new String[size];
+        VALUES = new Value[size];
+
+        int index = 0;
+        for (Map.Entry<String, Value> entry : root.entrySet()) {
+            KEYS[index] = requireNonNull(entry.getKey(), "Key cannot be null");
+            VALUES[index] = requireNonNull(entry.getValue(), "Value cannot be null");
+            index++;
+        }
+
+        BUCKETS = KeyBuckets.forKeys(KEYS);
+    }
+
+    /**
+     * Creates a new metadata view with a single property at the root.
+     * @param key               key of the property
+     * @param value             value of the property
+     */
+    public PropertiesMetadataView(String key, Value value) {
+        KEYS = new String[] { requireNonNull(key, "Key cannot be null") };
+        VALUES = new Value[] { requireNonNull(value, "Value cannot be null") };
+        BUCKETS = null;
     }
 
     @Override
     public int size() {
-        return PROPERTIES.size();
+        return KEYS.length;
     }
 
     @Override
     public Iterable<String> keys() {
-        return PROPERTIES.keySet();
+        return Collections.unmodifiableList(Arrays.asList(KEYS));
     }
 
     @Override
     public boolean hasKey(String key) {
-        return PROPERTIES.containsKey(key);
+        return indexOf(key) >= 0;
     }
 
     @Override
@@ -67,245 +94,328 @@ public final class PropertiesMetadataView implements MetadataView {
             throw new NegativeKeyIndexException(index);
         }
 
-        return index < PROPERTIES.size();
+        return index < KEYS.length;
     }
 
     @Override
-    public Optional<String> stringValue(String key) {
-        if (isNotString(key)) {
-            return Optional.empty();
-        }
-
-        return Optional.of(PROPERTIES.get(key).STRING);
+    Value value(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : VALUES[index];
     }
 
     @Override
-    public Optional<String> stringValue(int index) {
-        if (isNotString(index)) {
-            return Optional.empty();
-        }
-
-        return Optional.of(VALUES_BY_INDEX.get(index).STRING);
-    }
-
-    @Override
-    public Optional<Integer> integerValue(String key) {
-        if (isNotString(key)) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(Integer.parseInt(PROPERTIES.get(key).STRING));
-        } catch (NumberFormatException err) {
-            return Optional.empty();
-        }
+    Value value(int index) {
+        return hasKey(index) ? VALUES[index] : null;
     }
 
-    @Override
-    public Optional<Integer> integerValue(int index) {
-        if (isNotString(index)) {
-            return Optional.empty();
-        }
-
-        try {
-            return Optional.of(Integer.parseInt(VALUES_BY_INDEX.get(index).STRING));
-        } catch (NumberFormatException err) {
-            return Optional.empty();
-        }
+    /**
+     * Finds the index of a key.
+     * @param key       key to find
+     * @return index of the key or -1 if the key is not present
+     */
+    private int indexOf(String key) {
+        return KeyBuckets.indexOf(KEYS, BUCKETS, key);
     }
 
-    @Override
-    public Optional<Long> longValue(String key) {
-        if (isNotString(key)) {
+    /**
+     * Interprets a string property as an integer. Accepts exactly the same strings as
+     * {@link Integer#parseInt(String)}, but reports failure without throwing an exception.
+     * @param value     string property to parse
+     * @return integer value or {@link Optional#empty()} if the string is not an integer
+     */
+    static Optional<Integer> parseInteger(String value) {
+        long magnitude = negativeMagnitude(value, Integer.MIN_VALUE, -Integer.MAX_VALUE);
+        if (magnitude == NOT_A_NUMBER) {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Long.parseLong(PROPERTIES.get(key).STRING));
-        } catch (NumberFormatException err) {
-            return Optional.empty();
-        }
+        return Optional.of((int) (value.charAt(0) == '-' ? magnitude : -magnitude));
     }
 
-    @Override
-    public Optional<Long> longValue(int index) {
-        if (isNotString(index)) {
+    /**
+     * Interprets a string property as a long. Accepts exactly the same strings as
+     * {@link Long#parseLong(String)}, but reports failure without throwing an exception.
+     * @param value     string property to parse
+     * @return long value or {@link Optional#empty()} if the string is not a long
+     */
+    static Optional<Long> parseLong(String value) {
+        long magnitude = negativeMagnitude(value, Long.MIN_VALUE, -Long.MAX_VALUE);
+        if (magnitude == NOT_A_NUMBER) {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Long.parseLong(VALUES_BY_INDEX.get(index).STRING));
-        } catch (NumberFormatException err) {
-            return Optional.empty();
-        }
+        return Optional.of(value.charAt(0) == '-' ? magnitude : -magnitude);
     }
 
-    @Override
-    public Optional<Float> floatValue(String key) {
-        if (isNotString(key)) {
+    /**
+     * Interprets a string property as a finite float. Strings that are not numbers are rejected
+     * before parsing, so they never cause an exception to be thrown.
+     * @param value     string property to parse
+     * @return float value or {@link Optional#empty()} if the string is not a finite float
+     */
+    static Optional<Float> parseFloat(String value) {
+        if (!isFiniteDecimal(value)) {
             return Optional.empty();
         }
 
         try {
-            float value = Float.parseFloat(PROPERTIES.get(key).STRING);
-            if (Float.isFinite(value)) {
-                return Optional.of(value);
+            float floatValue = Float.parseFloat(value);
+            if (Float.isFinite(floatValue)) {
+                return Optional.of(floatValue);
             }
         } catch (NumberFormatException ignored) {}
 
         return Optional.empty();
     }
 
-    @Override
-    public Optional<Float> floatValue(int index) {
-        if (isNotString(index)) {
+    /**
+     * Interprets a string property as a finite double. Strings that are not numbers are rejected
+     * before parsing, so they never cause an exception to be thrown.
+     * @param value     string property to parse
+     * @return double value or {@link Optional#empty()} if the string is not a finite double
+     */
+    static Optional<Double> parseDouble(String value) {
+        if (!isFiniteDecimal(value)) {
             return Optional.empty();
         }
 
         try {
-            float value = Float.parseFloat(VALUES_BY_INDEX.get(index).STRING);
-            if (Float.isFinite(value)) {
-                return Optional.of(value);
+            double doubleValue = Double.parseDouble(value);
+            if (Double.isFinite(doubleValue)) {
+                return Optional.of(doubleValue);
             }
         } catch (NumberFormatException ignored) {}
 
         return Optional.empty();
     }
 
-    @Override
-    public Optional<Double> doubleValue(String key) {
-        if (isNotString(key)) {
-            return Optional.empty();
+    /**
+     * Interprets a string property as a boolean.
+     * @param value     string property to parse
+     * @return true if the string is "true", ignoring case, or false otherwise
+     */
+    static Optional<Boolean> parseBoolean(String value) {
+        return Optional.of("true".equalsIgnoreCase(value));
+    }
+
+    /**
+     * Parses a base-10 whole number with the same rules as {@link Long#parseLong(String)}: an optional
+     * sign followed by at least one digit, with no surrounding whitespace. The magnitude is accumulated
+     * negatively so that the smallest value does not overflow.
+     * @param value             string to parse
+     * @param negativeLimit     smallest accepted value when the string has a minus sign
+     * @param positiveLimit     negation of the largest accepted value when there is no minus sign
+     * @return negated magnitude of the number or {@link #NOT_A_NUMBER} if the string is not a
+     *         number within the limits
+     */
+    private static long negativeMagnitude(String value, long negativeLimit, long positiveLimit) {
+        if (value == null || value.isEmpty()) {
+            return NOT_A_NUMBER;
         }
 
-        try {
-            double value = Double.parseDouble(PROPERTIES.get(key).STRING);
-            if (Double.isFinite(value)) {
-                return Optional.of(value);
+        int length = value.length();
+        int index = 0;
+        long limit = positiveLimit;
+
+        char first = value.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                limit = negativeLimit;
+            } else if (first != '+') {
+                return NOT_A_NUMBER;
             }
-        } catch (NumberFormatException ignored) {}
 
-        return Optional.empty();
-    }
+            if (length == 1) {
+                return NOT_A_NUMBER;
+            }
 
-    @Override
-    public Optional<Double> doubleValue(int index) {
-        if (isNotString(index)) {
-            return Optional.empty();
+            index++;
         }
 
-        try {
-            double value = Double.parseDouble(VALUES_BY_INDEX.get(index).STRING);
-            if (Double.isFinite(value)) {
-                return Optional.of(value);
+        long multiplyMin = limit / 10;
+        long result = 0;
+        while (index < length) {
+            int digit = digit(value.charAt(index++));
+            if (digit < 0 || result < multiplyMin) {
+                return NOT_A_NUMBER;
             }
-        } catch (NumberFormatException ignored) {}
 
-        return Optional.empty();
-    }
+            result *= 10;
+            if (result < limit + digit) {
+                return NOT_A_NUMBER;
+            }
 
-    @Override
-    public Optional<Boolean> booleanValue(String key) {
-        if (isNotString(key)) {
-            return Optional.empty();
+            result -= digit;
         }
 
-        return Optional.of("true".equalsIgnoreCase(PROPERTIES.get(key).STRING));
+        return result;
     }
 
-    @Override
-    public Optional<Boolean> booleanValue(int index) {
-        if (isNotString(index)) {
-            return Optional.empty();
+    /**
+     * Gets the base-10 value of a digit, including non-ASCII digits, like {@link Character#digit(char, int)}.
+     * @param c     character to convert
+     * @return value of the digit or -1 if the character is not a digit
+     */
+    private static int digit(char c) {
+        if (c < 128) {
+            return c >= '0' && c <= '9' ? c - '0' : -1;
         }
 
-        return Optional.of("true".equalsIgnoreCase(VALUES_BY_INDEX.get(index).STRING));
+        return Character.digit(c, 10);
     }
 
-    @Override
-    public Optional<InputStream> byteStreamValue(String key) {
-        if (!hasKey(key) || PROPERTIES.get(key).TYPE != ValueType.BYTE_STREAM) {
-            return Optional.empty();
+    /**
+     * Checks whether a string is accepted by {@link Double#parseDouble(String)} and
+     * {@link Float#parseFloat(String)} without being NaN or an infinity. Values that are
+     * too large to be finite after parsing are still accepted by this check.
+     * @param value     string to check
+     * @return true if the string is a decimal or hexadecimal floating-point literal, false otherwise
+     */
+    private static boolean isFiniteDecimal(String value) {
+        if (value == null) {
+            return false;
         }
 
-        return Optional.of(PROPERTIES.get(key).BYTE_STREAM);
-    }
+        // Surrounding whitespace is trimmed the same way as String#trim
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
 
-    @Override
-    public Optional<InputStream> byteStreamValue(int index) {
-        if (!hasKey(index) || VALUES_BY_INDEX.get(index).TYPE != ValueType.BYTE_STREAM) {
-            return Optional.empty();
+        int index = 0;
+        while (index < end && value.charAt(index) <= ' ') {
+            index++;
         }
 
-        return Optional.of(VALUES_BY_INDEX.get(index).BYTE_STREAM);
+        if (index < end && (value.charAt(index) == '+' || value.charAt(index) == '-')) {
+            index++;
+        }
+
+        // An optional type suffix may follow any number
+        if (index < end) {
+            char last = value.charAt(end - 1);
+            if (last == 'f' || last == 'F' || last == 'd' || last == 'D') {
+                end--;
+            }
+        }
+
+        if (end - index > 1 && value.charAt(index) == '0'
+                && (value.charAt(index + 1) == 'x' || value.charAt(index + 1) == 'X')) {
+            return isHexSignificandAndExponent(value, index + 2, end);
+        }
+
+        int digits = 0;
+        while (index < end && isAsciiDigit(value.charAt(index))) {
+            index++;
+            digits++;
+        }
+
+        if (index < end && value.charAt(index) == '.') {
+            index++;
+            while (index < end && isAsciiDigit(value.charAt(index))) {
+                index++;
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        if (index < end && (value.charAt(index) == 'e' || value.charAt(index) == 'E')) {
+            return isExponent(value, index + 1, end);
+        }
+
+        return index == end;
     }
 
-    @Override
-    public Optional<MetadataView> subView(String key) {
-        if (!hasKey(key)) {
-            return Optional.empty();
+    /**
+     * Checks whether a region is the significand and binary exponent of a hexadecimal floating-point literal.
+     * @param value     string to check
+     * @param index     start of the region, after the hexadecimal prefix
+     * @param end       end of the region, before any type suffix
+     * @return true if the region is a valid hexadecimal significand and exponent, false otherwise
+     */
+    private static boolean isHexSignificandAndExponent(String value, int index, int end) {
+        int digits = 0;
+        while (index < end && isAsciiHexDigit(value.charAt(index))) {
+            index++;
+            digits++;
         }
 
-        Value value = PROPERTIES.get(key);
-        if (value.TYPE != ValueType.SUB_VIEW) {
-            return Optional.empty();
+        if (index < end && value.charAt(index) == '.') {
+            index++;
+            while (index < end && isAsciiHexDigit(value.charAt(index))) {
+                index++;
+                digits++;
+            }
+        }
+
+        if (digits == 0 || index == end || (value.charAt(index) != 'p' && value.charAt(index) != 'P')) {
+            return false;
         }
 
-        return Optional.of(value.SUB_VIEW);
+        return isExponent(value, index + 1, end);
     }
 
-    @Override
-    public Optional<MetadataView> subView(int index) {
-        if (!hasKey(index)) {
-            return Optional.empty();
+    /**
+     * Checks whether a region is an exponent: an optional sign followed by at least one ASCII digit.
+     * @param value     string to check
+     * @param index     start of the region, after the exponent indicator
+     * @param end       end of the region, before any type suffix
+     * @return true if the region is a valid exponent, false otherwise
+     */
+    private static boolean isExponent(String value, int index, int end) {
+        if (index < end && (value.charAt(index) == '+' || value.charAt(index) == '-')) {
+            index++;
         }
 
-        Value value = VALUES_BY_INDEX.get(index);
-        if (value.TYPE != ValueType.SUB_VIEW) {
-            return Optional.empty();
+        if (index == end) {
+            return false;
+        }
+
+        while (index < end) {
+            if (!isAsciiDigit(value.charAt(index++))) {
+                return false;
+            }
         }
 
-        return Optional.of(value.SUB_VIEW);
+        return true;
     }
 
     /**
-     * Checks if a value is either not present or not a string.
-     * @param key       key associated with the value
-     * @return true if the value is not present or not a string, false otherwise
+     * Checks whether a character is an ASCII digit.
+     * @param c     character to check
+     * @return true if the character is between '0' and '9', false otherwise
      */
-    private boolean isNotString(String key) {
-        return !hasKey(key) || PROPERTIES.get(key).TYPE != ValueType.STRING;
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
-     * Checks if a value is either not present or not a string.
-     * @param index       index of the value
-     * @return true if the value is not present or not a string, false otherwise
+     * Checks whether a character is an ASCII hexadecimal digit.
+     * @param c     character to check
+     * @return true if the character is a digit or a letter from 'a' to 'f' in either case, false otherwise
      */
-    private boolean isNotString(int index) {
-        return !hasKey(index) || VALUES_BY_INDEX.get(index).TYPE != ValueType.STRING;
+    private static boolean isAsciiHexDigit(char c) {
+        return isAsciiDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
     }
 
     /**
-     * Holds either a property/string or a sub view for the {@link PropertiesMetadataView}.
-     * Enforces valid inputs to the view at compile-time.
+     * Holds either a property/string, a byte stream, or a sub view for the {@link PropertiesMetadataView}.
+     * Enforces valid inputs to the view at compile-time. The type of the value is determined by the class
+     * of its only reference, so a string value costs no more than a single wrapper.
      * @author soir20
      */
-    public static final class Value {
-        private final ValueType TYPE;
-        private final String STRING;
-        private final InputStream BYTE_STREAM;
-        private final MetadataView SUB_VIEW;
+    public static final class Value implements ValueMetadataView.MetadataValue {
+        private final Object VALUE;
 
         /**
          * Creates a new wrapper with a string.
          * @param value      string value to store
          */
         public Value(String value) {
-            STRING = requireNonNull(value, "Property cannot be null");
-            BYTE_STREAM = null;
-            SUB_VIEW = null;
-            TYPE = ValueType.STRING;
+            VALUE = requireNonNull(value, "Property cannot be null");
         }
 
         /**
@@ -313,10 +423,7 @@ public final class PropertiesMetadataView implements MetadataView {
          * @param byteStream    byte stream to store
          */
         public Value(InputStream byteStream) {
-            STRING = null;
-            BYTE_STREAM = requireNonNull(byteStream, "Byte stream cannot be null");
-            SUB_VIEW = null;
-            TYPE = ValueType.BYTE_STREAM;
+            VALUE = requireNonNull(byteStream, "Byte stream cannot be null");
         }
 
         /**
@@ -324,18 +431,136 @@ public final class PropertiesMetadataView implements MetadataView {
          * @param subView       sub view to store
          */
         public Value(MetadataView subView) {
-            STRING = null;
-            BYTE_STREAM = null;
-            SUB_VIEW = requireNonNull(subView, "Sub view cannot be null");
-            TYPE = ValueType.SUB_VIEW;
+            VALUE = requireNonNull(subView, "Sub view cannot be null");
         }
 
-    }
+        /**
+         * Gets the string in this wrapper.
+         * @return string value or {@link Optional#empty()} if this wrapper does not hold a string
+         */
+        @Override
+        public Optional<String> stringValue() {
+            return VALUE instanceof String string ? Optional.of(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as an integer.
+         * @return integer value or {@link Optional#empty()} if this wrapper does not hold an integer
+         */
+        @Override
+        public Optional<Integer> integerValue() {
+            return VALUE instanceof String string ? parseInteger(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as a long.
+         * @return long value or {@link Optional#empty()} if this wrapper does not hold a long
+         */
+        @Override
+        public Optional<Long> longValue() {
+            return VALUE instanceof String string ? parseLong(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as a finite float.
+         * @return float value or {@link Optional#empty()} if this wrapper does not hold a finite float
+         */
+        @Override
+        public Optional<Float> floatValue() {
+            return VALUE instanceof String string ? parseFloat(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as a finite double.
+         * @return double value or {@link Optional#empty()} if this wrapper does not hold a finite double
+         */
+        @Override
+        public Optional<Double> doubleValue() {
+            return VALUE instanceof String string ? parseDouble(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as a boolean.
+         * @return true if the string is "true", ignoring case, false if it is another string, or
+         *         {@link Optional#empty()} if this wrapper does not hold a string
+         */
+        @Override
+        public Optional<Boolean> booleanValue() {
+            return VALUE instanceof String string ? parseBoolean(string) : Optional.empty();
+        }
+
+        /**
+         * Gets the string in this wrapper as an integer without boxing it.
+         * @param defaultValue      value to return if this wrapper does not hold an integer
+         * @return integer value or the default value
+         */
+        @Override
+        public int integerValueOr(int defaultValue) {
+            Optional<Integer> result = integerValue();
+            return result.isPresent() ? result.get() : defaultValue;
+        }
+
+        /**
+         * Gets the string in this wrapper as a long without boxing it.
+         * @param defaultValue      value to return if this wrapper does not hold a long
+         * @return long value or the default value
+         */
+        @Override
+        public long longValueOr(long defaultValue) {
+            Optional<Long> result = longValue();
+            return result.isPresent() ? result.get() : defaultValue;
+        }
+
+        /**
+         * Gets the string in this wrapper as a finite float without boxing it.
+         * @param defaultValue      value to return if this wrapper does not hold a finite float
+         * @return float value or the default value
+         */
+        @Override
+        public float floatValueOr(float defaultValue) {
+            Optional<Float> result = floatValue();
+            return result.isPresent() ? result.get() : defaultValue;
+        }
+
+        /**
+         * Gets the string in this wrapper as a finite double without boxing it.
+         * @param defaultValue      value to return if this wrapper does not hold a finite double
+         * @return double value or the default value
+         */
+        @Override
+        public double doubleValueOr(double defaultValue) {
+            Optional<Double> result = doubleValue();
+            return result.isPresent() ? result.get() : defaultValue;
+        }
+
+        /**
+         * Gets the string in this wrapper as a boolean without boxing it.
+         * @param defaultValue      value to return if this wrapper does not hold a string
+         * @return boolean value or the default value
+         */
+        @Override
+        public boolean booleanValueOr(boolean defaultValue) {
+            return VALUE instanceof String string ? "true".equalsIgnoreCase(string) : defaultValue;
+        }
+
+        /**
+         * Gets the byte stream in this wrapper.
+         * @return byte stream or {@link Optional#empty()} if this wrapper does not hold a byte stream
+         */
+        @Override
+        public Optional<InputStream> byteStreamValue() {
+            return VALUE instanceof InputStream byteStream ? Optional.of(byteStream) : Optional.empty();
+        }
+
+        /**
+         * Gets the sub view in this wrapper.
+         * @return sub view or {@link Optional#empty()} if this wrapper does not hold a sub view
+         */
+        @Override
+        public Optional<MetadataView> subView() {
+            return VALUE instanceof MetadataView subView ? Optional.of(subView) : Optional.empty();
+        }
 
-    private enum ValueType {
-        STRING,
-        BYTE_STREAM,
-        SUB_VIEW
     }
 
 }
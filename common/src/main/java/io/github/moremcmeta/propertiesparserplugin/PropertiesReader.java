@@ -0,0 +1,353 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads .properties files directly from their bytes with the same semantics as
+ * {@link java.util.Properties#load(InputStream)}, but without synchronization or intermediate
+ * copies. Bytes are interpreted as ISO 8859-1, and the only allocations per entry are its key
+ * and value strings, or none at all when the file is read into a {@link PropertiesTokens} table.
+ * @author soir20
+ */
+final class PropertiesReader {
+    private static final int INPUT_BUFFER_SIZE = 8192;
+    private static final int INITIAL_LINE_SIZE = 128;
+
+    private final InputStream STREAM;
+    private final byte[] INPUT;
+    private int inputLimit;
+    private int inputOffset;
+    private char[] line;
+
+    /**
+     * Reads all properties from a stream. Duplicate keys are resolved in favor of the last value
+     * in the stream.
+     * @param stream        stream to read properties from
+     * @return all key-value pairs in the stream
+     * @throws IOException if the stream cannot be read
+     * @throws InvalidMetadataException if the stream contains a malformed unicode escape
+     */
+    public static Map<String, String> read(InputStream stream) throws IOException, InvalidMetadataException {
+        Map<String, String> properties = new HashMap<>();
+        read(stream, properties::put);
+        return properties;
+    }
+
+    /**
+     * Reads all properties from a stream, passing each key-value pair to a consumer in the order
+     * they appear in the stream. Duplicate keys are passed to the consumer each time they appear.
+     * @param stream        stream to read properties from
+     * @param consumer      receives every key-value pair as it is read
+     * @throws IOException if the stream cannot be read
+     * @throws InvalidMetadataException if the stream contains a malformed unicode escape
+     */
+    public static void read(InputStream stream, BiConsumer<String, String> consumer)
+            throws IOException, InvalidMetadataException {
+        requireNonNull(consumer, "Consumer cannot be null");
+        PropertiesReader reader = new PropertiesReader(requireNonNull(stream, "Stream cannot be null"));
+        reader.readAll((buffer, keyStart, keyLength, valueStart, valueLength) -> consumer.accept(
+                new String(buffer, keyStart, keyLength),
+                new String(buffer, valueStart, valueLength)
+        ));
+    }
+
+    /**
+     * Reads all properties from a stream into a token table without creating any strings. Duplicate
+     * keys are kept in the table each time they appear.
+     * @param stream        stream to read properties from
+     * @return table of all key-value pairs in the order they appear in the stream
+     * @throws IOException if the stream cannot be read
+     * @throws InvalidMetadataException if the stream contains a malformed unicode escape
+     */
+    public static PropertiesTokens tokenize(InputStream stream) throws IOException, InvalidMetadataException {
+        PropertiesReader reader = new PropertiesReader(requireNonNull(stream, "Stream cannot be null"));
+        PropertiesTokens.Builder builder = new PropertiesTokens.Builder();
+        reader.readAll(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Creates a new reader.
+     * @param stream        stream to read properties from
+     */
+    private PropertiesReader(InputStream stream) {
+        STREAM = stream;
+        INPUT = new byte[INPUT_BUFFER_SIZE];
+        line = new char[INITIAL_LINE_SIZE];
+    }
+
+    /**
+     * Reads all properties and passes them to the given consumer.
+     * @param consumer          receives every key-value pair as it is read
+     * @throws IOException if the stream cannot be read
+     * @throws InvalidMetadataException if the stream contains a malformed unicode escape
+     */
+    private void readAll(EntryConsumer consumer) throws IOException, InvalidMetadataException {
+        int limit;
+        while ((limit = readLogicalLine()) >= 0) {
+            char[] line = this.line;
+            int keyLength = 0;
+            int valueStart = limit;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+
+            // Find the end of the key
+            while (keyLength < limit) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+
+            // Skip whitespace and at most one separator before the value
+            while (valueStart < limit) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+
+                valueStart++;
+            }
+
+            int convertedKeyLength = convert(line, 0, keyLength);
+            int convertedValueLength = convert(line, valueStart, limit - valueStart);
+            consumer.accept(line, 0, convertedKeyLength, valueStart, convertedValueLength);
+        }
+    }
+
+    /**
+     * Reads the next logical line into the line buffer. Comment lines and blank lines are skipped,
+     * line continuations are joined, and leading whitespace is removed. Escape sequences other than
+     * line continuations are left in place.
+     * @return number of characters in the logical line or -1 if the end of the stream was reached
+     * @throws IOException if the stream cannot be read
+     */
+    private int readLogicalLine() throws IOException {
+        int length = 0;
+        boolean skipWhitespace = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLineFeed = false;
+
+        while (true) {
+            if (!fill()) {
+                if (length == 0) {
+                    return -1;
+                }
+
+                // A trailing backslash at the end of the stream is dropped
+                return precedingBackslash ? length - 1 : length;
+            }
+
+            // ISO 8859-1 maps every byte to the char with the same value
+            char c = (char) (INPUT[inputOffset++] & 0xFF);
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+
+            if (skipWhitespace) {
+                if (isWhitespace(c) || (!appendedLineBegin && (c == '\r' || c == '\n'))) {
+                    continue;
+                }
+
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+
+            // Still at the start of a logical line
+            if (length == 0 && (c == '#' || c == '!')) {
+                if (!skipComment()) {
+                    return -1;
+                }
+
+                skipWhitespace = true;
+                continue;
+            }
+
+            if (c != '\n' && c != '\r') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+
+                line[length++] = c;
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                continue;
+            }
+
+            // Reached the end of a physical line
+            if (length == 0) {
+                skipWhitespace = true;
+                continue;
+            }
+
+            if (!precedingBackslash) {
+                return length;
+            }
+
+            // Drop the backslash and join the next physical line
+            if (!fill()) {
+                return length - 1;
+            }
+
+            length--;
+            skipWhitespace = true;
+            appendedLineBegin = true;
+            precedingBackslash = false;
+            skipLineFeed = c == '\r';
+        }
+    }
+
+    /**
+     * Skips the rest of a comment, including the line terminator.
+     * @return true if there is more input after the comment, false if the end of the stream was reached
+     * @throws IOException if the stream cannot be read
+     */
+    private boolean skipComment() throws IOException {
+        while (fill()) {
+            byte b = INPUT[inputOffset++];
+            if (b == '\r' || b == '\n') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Refills the input buffer from the stream if all buffered input has been consumed.
+     * @return true if there is input available, false if the end of the stream was reached
+     * @throws IOException if the stream cannot be read
+     */
+    private boolean fill() throws IOException {
+        if (inputOffset < inputLimit) {
+            return true;
+        }
+
+        inputLimit = STREAM.read(INPUT);
+        inputOffset = 0;
+        return inputLimit > 0;
+    }
+
+    /**
+     * Replaces escape sequences in a region of a logical line with the characters they represent.
+     * The conversion is performed in place because the converted region is never longer than the
+     * original.
+     * @param line          line buffer containing the region
+     * @param offset        start of the region
+     * @param length        length of the region
+     * @return length of the converted region, which starts at the same offset
+     * @throws InvalidMetadataException if the region contains a malformed unicode escape
+     */
+    private static int convert(char[] line, int offset, int length) throws InvalidMetadataException {
+        int end = offset + length;
+        int readIndex = offset;
+        int writeIndex = offset;
+
+        while (readIndex < end) {
+            char c = line[readIndex++];
+            if (c != '\\' || readIndex == end) {
+                line[writeIndex++] = c;
+                continue;
+            }
+
+            c = line[readIndex++];
+            switch (c) {
+                case 'u' -> {
+                    if (readIndex > end - 4) {
+                        throw new InvalidMetadataException("Malformed \\uxxxx encoding in properties file");
+                    }
+
+                    int value = 0;
+                    for (int digit = 0; digit < 4; digit++) {
+                        int digitValue = Character.digit(line[readIndex++], 16);
+                        if (digitValue < 0) {
+                            throw new InvalidMetadataException("Malformed \\uxxxx encoding in properties file");
+                        }
+
+                        value = (value << 4) | digitValue;
+                    }
+
+                    line[writeIndex++] = (char) value;
+                }
+                case 't' -> line[writeIndex++] = '\t';
+                case 'r' -> line[writeIndex++] = '\r';
+                case 'n' -> line[writeIndex++] = '\n';
+                case 'f' -> line[writeIndex++] = '\f';
+                default -> line[writeIndex++] = c;
+            }
+        }
+
+        return writeIndex - offset;
+    }
+
+    /**
+     * Checks if a character is whitespace according to the .properties format.
+     * @param c     character to check
+     * @return true if the character is whitespace, false otherwise
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * Receives a converted key-value pair directly from the line buffer.
+     * @author soir20
+     */
+    @FunctionalInterface
+    private interface EntryConsumer {
+
+        /**
+         * Accepts a key-value pair. The buffer is reused after this method returns.
+         * @param buffer            buffer containing the key and value
+         * @param keyStart          start of the key in the buffer
+         * @param keyLength         length of the key
+         * @param valueStart        start of the value in the buffer
+         * @param valueLength       length of the value
+         */
+        void accept(char[] buffer, int keyStart, int keyLength, int valueStart, int valueLength);
+
+    }
+
+}
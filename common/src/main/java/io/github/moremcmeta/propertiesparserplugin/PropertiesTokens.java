@@ -0,0 +1,345 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import java.util.Arrays;
+
+/**
+ * Compact table of every key-value pair read from a .properties file, in the order they appear. All keys
+ * and values share a single character buffer, with escapes already converted, and each entry only records
+ * where its key and value are in that buffer. Strings are only created when they are requested.
+ * @author soir20
+ */
+final class PropertiesTokens {
+    static final long NOT_CANONICAL = Long.MIN_VALUE;
+
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_START = 2;
+    private static final int VALUE_END = 3;
+    private static final int BOUNDS_PER_ENTRY = 4;
+
+    private final char[] TEXT;
+    private final int[] BOUNDS;
+    private final int SIZE;
+
+    /**
+     * Creates a new token table.
+     * @param text          buffer containing all keys and values
+     * @param bounds        start and end of each entry's key and value in the buffer
+     * @param size          number of entries
+     */
+    private PropertiesTokens(char[] text, int[] bounds, int size) {
+        TEXT = text;
+        BOUNDS = bounds;
+        SIZE = size;
+    }
+
+    /**
+     * Gets the number of entries in the table, including entries with duplicate keys.
+     * @return number of entries
+     */
+    public int size() {
+        return SIZE;
+    }
+
+    /**
+     * Creates the key of an entry as a string.
+     * @param entry     index of the entry
+     * @return key of the entry
+     */
+    public String key(int entry) {
+        int start = bound(entry, KEY_START);
+        return new String(TEXT, start, bound(entry, KEY_END) - start);
+    }
+
+    /**
+     * Creates the value of an entry as a string.
+     * @param entry     index of the entry
+     * @return value of the entry
+     */
+    public String value(int entry) {
+        int start = bound(entry, VALUE_START);
+        return new String(TEXT, start, bound(entry, VALUE_END) - start);
+    }
+
+    /**
+     * Gets the length of an entry's key.
+     * @param entry     index of the entry
+     * @return number of characters in the key
+     */
+    public int keyLength(int entry) {
+        return bound(entry, KEY_END) - bound(entry, KEY_START);
+    }
+
+    /**
+     * Gets a character in an entry's key.
+     * @param entry     index of the entry
+     * @param index     index of the character in the key
+     * @return character at the index
+     */
+    public char keyCharAt(int entry, int index) {
+        return TEXT[bound(entry, KEY_START) + index];
+    }
+
+    /**
+     * Checks whether an entry's key is equal to a string without creating the key.
+     * @param entry     index of the entry
+     * @param key       string to compare
+     * @return true if the key is equal to the string, false otherwise
+     */
+    public boolean keyEquals(int entry, String key) {
+        return regionEquals(TEXT, bound(entry, KEY_START), bound(entry, KEY_END), key);
+    }
+
+    /**
+     * Checks whether two entries have equal keys.
+     * @param entry         index of the first entry
+     * @param otherEntry    index of the second entry
+     * @return true if the keys are equal, false otherwise
+     */
+    public boolean keysEqual(int entry, int otherEntry) {
+        int start = bound(entry, KEY_START);
+        int otherStart = bound(otherEntry, KEY_START);
+        int length = bound(entry, KEY_END) - start;
+        return length == bound(otherEntry, KEY_END) - otherStart
+                && Arrays.equals(TEXT, start, start + length, TEXT, otherStart, otherStart + length);
+    }
+
+    /**
+     * Checks whether an entry's key starts with a string without creating the key.
+     * @param entry     index of the entry
+     * @param prefix    prefix to check for
+     * @return true if the key starts with the prefix, false otherwise
+     */
+    public boolean keyStartsWith(int entry, String prefix) {
+        int start = bound(entry, KEY_START);
+        if (prefix.length() > bound(entry, KEY_END) - start) {
+            return false;
+        }
+
+        for (int index = 0; index < prefix.length(); index++) {
+            if (TEXT[start + index] != prefix.charAt(index)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the hash code that the key of an entry would have as a string, without creating the key.
+     * @param entry     index of the entry
+     * @return hash code of the key, equal to {@link String#hashCode()}
+     */
+    public int keyHash(int entry) {
+        return regionHash(TEXT, bound(entry, KEY_START), bound(entry, KEY_END));
+    }
+
+    /**
+     * Gets the length of an entry's value.
+     * @param entry     index of the entry
+     * @return number of characters in the value
+     */
+    public int valueLength(int entry) {
+        return bound(entry, VALUE_END) - bound(entry, VALUE_START);
+    }
+
+    /**
+     * Checks whether an entry's value is equal to a string without creating the value.
+     * @param entry     index of the entry
+     * @param value     string to compare
+     * @return true if the value is equal to the string, false otherwise
+     */
+    public boolean valueEquals(int entry, String value) {
+        return regionEquals(TEXT, bound(entry, VALUE_START), bound(entry, VALUE_END), value);
+    }
+
+    /**
+     * Computes the hash code that the value of an entry would have as a string, without creating the value.
+     * @param entry     index of the entry
+     * @return hash code of the value, equal to {@link String#hashCode()}
+     */
+    public int valueHash(int entry) {
+        return regionHash(TEXT, bound(entry, VALUE_START), bound(entry, VALUE_END));
+    }
+
+    /**
+     * Copies the value of an entry into a buffer without creating the value.
+     * @param entry         index of the entry
+     * @param dest          buffer to copy the value into
+     * @param destStart     index in the buffer where the value starts
+     */
+    public void copyValue(int entry, char[] dest, int destStart) {
+        int start = bound(entry, VALUE_START);
+        System.arraycopy(TEXT, start, dest, destStart, bound(entry, VALUE_END) - start);
+    }
+
+    /**
+     * Interprets the value of an entry as an integer if it is written exactly as {@link String#valueOf(int)}
+     * would write it, without creating the value.
+     * @param entry     index of the entry
+     * @return integer value or {@link #NOT_CANONICAL} if the value is not a canonical integer
+     */
+    public long canonicalIntValue(int entry) {
+        int start = bound(entry, VALUE_START);
+        int end = bound(entry, VALUE_END);
+        if (start == end) {
+            return NOT_CANONICAL;
+        }
+
+        boolean negative = TEXT[start] == '-';
+        int digitsStart = negative ? start + 1 : start;
+        int digits = end - digitsStart;
+
+        // Leading zeros, "-0", and numbers longer than the largest int are never canonical
+        if (digits == 0 || digits > 10 || (TEXT[digitsStart] == '0' && (digits > 1 || negative))) {
+            return NOT_CANONICAL;
+        }
+
+        long result = 0;
+        for (int index = digitsStart; index < end; index++) {
+            char c = TEXT[index];
+            if (c < '0' || c > '9') {
+                return NOT_CANONICAL;
+            }
+
+            result = result * 10 + (c - '0');
+        }
+
+        result = negative ? -result : result;
+        return result < Integer.MIN_VALUE || result > Integer.MAX_VALUE ? NOT_CANONICAL : result;
+    }
+
+    /**
+     * Checks whether a region of a character buffer is equal to a string.
+     * @param text      buffer containing the region
+     * @param start     start of the region
+     * @param end       end of the region
+     * @param string    string to compare
+     * @return true if the region is equal to the string, false otherwise
+     */
+    private static boolean regionEquals(char[] text, int start, int end, String string) {
+        int length = end - start;
+        if (string.length() != length) {
+            return false;
+        }
+
+        for (int index = 0; index < length; index++) {
+            if (text[start + index] != string.charAt(index)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the hash code that a region of a character buffer would have as a string.
+     * @param text      buffer containing the region
+     * @param start     start of the region
+     * @param end       end of the region
+     * @return hash code of the region, equal to {@link String#hashCode()}
+     */
+    private static int regionHash(char[] text, int start, int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = 31 * hash + text[index];
+        }
+
+        return hash;
+    }
+
+    /**
+     * Gets one of the bounds of an entry.
+     * @param entry     index of the entry
+     * @param bound     which bound to retrieve
+     * @return index in the text buffer
+     */
+    private int bound(int entry, int bound) {
+        return BOUNDS[entry * BOUNDS_PER_ENTRY + bound];
+    }
+
+    /**
+     * Builds a {@link PropertiesTokens} table one entry at a time.
+     * @author soir20
+     */
+    static final class Builder {
+        private static final int INITIAL_TEXT_SIZE = 256;
+        private static final int INITIAL_ENTRIES = 16;
+
+        private char[] text;
+        private int textLength;
+        private int[] bounds;
+        private int size;
+
+        /**
+         * Creates a new builder with no entries.
+         */
+        public Builder() {
+            text = new char[INITIAL_TEXT_SIZE];
+            bounds = new int[INITIAL_ENTRIES * BOUNDS_PER_ENTRY];
+        }
+
+        /**
+         * Adds an entry to the table by copying its key and value from a buffer.
+         * @param buffer            buffer containing the key and value
+         * @param keyStart          start of the key in the buffer
+         * @param keyLength         length of the key
+         * @param valueStart        start of the value in the buffer
+         * @param valueLength       length of the value
+         */
+        public void add(char[] buffer, int keyStart, int keyLength, int valueStart, int valueLength) {
+            int required = textLength + keyLength + valueLength;
+            if (required > text.length) {
+                text = Arrays.copyOf(text, Math.max(required, text.length * 2));
+            }
+
+            if ((size + 1) * BOUNDS_PER_ENTRY > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+
+            int boundsIndex = size * BOUNDS_PER_ENTRY;
+            bounds[boundsIndex + KEY_START] = textLength;
+            System.arraycopy(buffer, keyStart, text, textLength, keyLength);
+            textLength += keyLength;
+            bounds[boundsIndex + KEY_END] = textLength;
+
+            bounds[boundsIndex + VALUE_START] = textLength;
+            System.arraycopy(buffer, valueStart, text, textLength, valueLength);
+            textLength += valueLength;
+            bounds[boundsIndex + VALUE_END] = textLength;
+
+            size++;
+        }
+
+        /**
+         * Builds a table with all entries added so far.
+         * @return table of all entries
+         */
+        public PropertiesTokens build() {
+            return new PropertiesTokens(
+                    Arrays.copyOf(text, textLength),
+                    Arrays.copyOf(bounds, size * BOUNDS_PER_ENTRY),
+                    size
+            );
+        }
+
+    }
+
+}
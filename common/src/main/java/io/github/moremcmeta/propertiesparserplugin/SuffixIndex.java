@@ -0,0 +1,107 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Index of resource locations by the ends of their paths. Locations are sorted by their reversed paths, so
+ * all locations whose paths end with the same suffix are next to each other. Finding them takes a binary
+ * search plus time proportional to the number of matches, instead of a comparison with every location.
+ * @author soir20
+ */
+final class SuffixIndex {
+    private final ResourceLocation[] LOCATIONS;
+
+    /**
+     * Creates a new index.
+     * @param locations     all locations to index
+     */
+    public SuffixIndex(Collection<? extends ResourceLocation> locations) {
+        requireNonNull(locations, "Locations cannot be null");
+        LOCATIONS = locations.toArray(new ResourceLocation[0]);
+        Arrays.sort(LOCATIONS, (first, second) -> compareReversed(first.getPath(), second.getPath()));
+    }
+
+    /**
+     * Gets all indexed locations whose paths end with a suffix.
+     * @param suffix        suffix to find
+     * @return all locations ending with the suffix
+     */
+    public List<ResourceLocation> endingWith(String suffix) {
+        requireNonNull(suffix, "Suffix cannot be null");
+
+        int start = firstNotBefore(suffix);
+        int end = start;
+        while (end < LOCATIONS.length && LOCATIONS[end].getPath().endsWith(suffix)) {
+            end++;
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(LOCATIONS).subList(start, end));
+    }
+
+    /**
+     * Finds the first location whose reversed path is not before a reversed suffix. If any path ends with
+     * the suffix, it is at this index.
+     * @param suffix        suffix to find
+     * @return index of the first location not before the suffix
+     */
+    private int firstNotBefore(String suffix) {
+        int low = 0;
+        int high = LOCATIONS.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareReversed(LOCATIONS[middle].getPath(), suffix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Compares two strings as if both were reversed, without creating the reversed strings.
+     * @param first         first string to compare
+     * @param second        second string to compare
+     * @return negative if the first string is before the second, positive if it is after, or zero if equal
+     */
+    private static int compareReversed(String first, String second) {
+        int firstIndex = first.length() - 1;
+        int secondIndex = second.length() - 1;
+
+        while (firstIndex >= 0 && secondIndex >= 0) {
+            int difference = first.charAt(firstIndex--) - second.charAt(secondIndex--);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return first.length() - second.length();
+    }
+
+}
@@ -0,0 +1,298 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.github.moremcmeta.propertiesparserplugin.ListMetadataView.requireNonNegative;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MetadataView} projected over a {@link PropertiesTokens} table. When the view is built, short values
+ * of the entries it keeps are shared through a {@link ValuePool}, longer values are copied into one compact
+ * buffer, and the table itself is released. Values in the buffer are only created when they are requested.
+ * Keys are resolved to their canonical instances in a {@link KeySymbols} table when the view is built.
+ * Properties may be renamed, and values that are not in the table, such as byte streams and sub views,
+ * may be added alongside the projected entries.
+ * @author soir20
+ */
+final class TokenTableView extends ValueMetadataView {
+    private static final int NOT_IN_TABLE = -1;
+
+    private final char[] VALUE_TEXT;
+    private final int[] VALUE_STARTS;
+    private final String[] NAMES;
+    private final int[] BUCKETS;
+
+    /* Values in the buffer are created on first access. This is intentionally not synchronized:
+       creating a value is idempotent, so a thread that sees null creates an equal value. */
+    private final PropertiesMetadataView.Value[] VALUES;
+
+    /**
+     * Creates a new projection.
+     * @param valueText     buffer containing the values of all long properties projected from the table
+     * @param valueStarts   start of each property's value in the buffer, followed by the end of the last value
+     * @param names         canonical key of each property
+     * @param values        pooled and added values, with null for each property whose value is in the buffer
+     */
+    private TokenTableView(char[] valueText, int[] valueStarts, String[] names, PropertiesMetadataView.Value[] values) {
+        VALUE_TEXT = valueText;
+        VALUE_STARTS = valueStarts;
+        NAMES = names;
+        VALUES = values;
+        BUCKETS = KeyBuckets.forKeys(names);
+    }
+
+    @Override
+    public int size() {
+        return NAMES.length;
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(NAMES));
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        requireNonNegative(index);
+        return index < NAMES.length;
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    PropertiesMetadataView.Value value(int index) {
+        return hasKey(index) ? valueAt(index) : null;
+    }
+
+    /**
+     * Gets the value at an index, creating it from the value buffer if it has not been created yet.
+     * @param index       index of the value, which must be within the bounds of this view
+     * @return the value at the index
+     */
+    private PropertiesMetadataView.Value valueAt(int index) {
+        PropertiesMetadataView.Value value = VALUES[index];
+        if (value == null) {
+            int start = VALUE_STARTS[index];
+            value = new PropertiesMetadataView.Value(new String(VALUE_TEXT, start, VALUE_STARTS[index + 1] - start));
+            VALUES[index] = value;
+        }
+
+        return value;
+    }
+
+    /**
+     * Finds the index of a key.
+     * @param key       key to find
+     * @return index of the key or -1 if the key is not present
+     */
+    private int indexOf(String key) {
+        return KeyBuckets.indexOf(NAMES, BUCKETS, key);
+    }
+
+    /**
+     * Checks whether the key of a property is equal to a string.
+     * @param tokens    table that the property may be projected from
+     * @param name      name of the property or null if it uses its key in the table
+     * @param entry     entry of the property in the table
+     * @param key       string to compare
+     * @return true if the property's key is equal to the string, false otherwise
+     */
+    private static boolean keyEquals(PropertiesTokens tokens, String name, int entry, String key) {
+        return name != null ? name.equals(key) : tokens.keyEquals(entry, key);
+    }
+
+    /**
+     * Builds a {@link TokenTableView}. When a property is added with the same key as an earlier property,
+     * it replaces the earlier property in the same position.
+     * @author soir20
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final PropertiesTokens TOKENS;
+        private final KeySymbols SYMBOLS;
+        private final ValuePool VALUE_POOL;
+        private String[] names;
+        private int[] entries;
+        private int[] hashes;
+        private PropertiesMetadataView.Value[] values;
+        private int[] buckets;
+        private int size;
+
+        /**
+         * Creates a new builder with no properties.
+         * @param tokens        table that entries are projected from
+         * @param symbols       table of canonical keys for the view
+         * @param valuePool     pool of shared values for entries from the table
+         */
+        public Builder(PropertiesTokens tokens, KeySymbols symbols, ValuePool valuePool) {
+            TOKENS = requireNonNull(tokens, "Tokens cannot be null");
+            SYMBOLS = requireNonNull(symbols, "Symbols cannot be null");
+            VALUE_POOL = requireNonNull(valuePool, "Value pool cannot be null");
+            names = new String[INITIAL_CAPACITY];
+            entries = new int[INITIAL_CAPACITY];
+            hashes = new int[INITIAL_CAPACITY];
+            values = new PropertiesMetadataView.Value[INITIAL_CAPACITY];
+            buckets = new int[INITIAL_CAPACITY * 2];
+        }
+
+        /**
+         * Adds an entry from the table with its key and value in the table.
+         * @param entry         entry in the table
+         */
+        public void putEntry(int entry) {
+            put(null, entry, TOKENS.keyHash(entry), null);
+        }
+
+        /**
+         * Adds an entry from the table under a different name.
+         * @param name          name of the property
+         * @param entry         entry in the table that contains the property's value
+         */
+        public void putEntry(String name, int entry) {
+            put(requireNonNull(name, "Name cannot be null"), entry, name.hashCode(), null);
+        }
+
+        /**
+         * Adds a value that is not in the table.
+         * @param name          name of the property
+         * @param value         value of the property
+         */
+        public void put(String name, PropertiesMetadataView.Value value) {
+            put(
+                    requireNonNull(name, "Name cannot be null"),
+                    NOT_IN_TABLE,
+                    name.hashCode(),
+                    requireNonNull(value, "Value cannot be null")
+            );
+        }
+
+        /**
+         * Builds a view of all properties added so far.
+         * @return view of all properties
+         */
+        public TokenTableView build() {
+            String[] canonicalNames = new String[size];
+            PropertiesMetadataView.Value[] builtValues = Arrays.copyOf(values, size);
+            int[] valueStarts = new int[size + 1];
+            for (int index = 0; index < size; index++) {
+                int entry = entries[index];
+                canonicalNames[index] = names[index] != null
+                        ? SYMBOLS.intern(names[index])
+                        : SYMBOLS.intern(TOKENS, entry);
+
+                // Short values are shared now, while the pool belongs to the current reload
+                int valueLength = entry == NOT_IN_TABLE ? 0 : TOKENS.valueLength(entry);
+                if (entry != NOT_IN_TABLE && valueLength <= ValuePool.MAX_LENGTH) {
+                    builtValues[index] = VALUE_POOL.intern(TOKENS, entry);
+                    valueLength = 0;
+                }
+
+                valueStarts[index + 1] = valueStarts[index] + valueLength;
+            }
+
+            // Copy only the long values that the view keeps so that it does not hold onto the whole table
+            char[] valueText = new char[valueStarts[size]];
+            for (int index = 0; index < size; index++) {
+                if (builtValues[index] == null) {
+                    TOKENS.copyValue(entries[index], valueText, valueStarts[index]);
+                }
+            }
+
+            return new TokenTableView(valueText, valueStarts, canonicalNames, builtValues);
+        }
+
+        /**
+         * Adds a property, replacing any property with the same key.
+         * @param name          name of the property or null if it uses its key in the table
+         * @param entry         entry in the table or {@link #NOT_IN_TABLE} for an added value
+         * @param hash          hash code of the property's key
+         * @param value         added value or null for an entry from the table
+         */
+        private void put(String name, int entry, int hash, PropertiesMetadataView.Value value) {
+            int mask = buckets.length - 1;
+            int bucket = KeyBuckets.spread(hash) & mask;
+            while (buckets[bucket] != KeyBuckets.EMPTY_BUCKET) {
+                int index = buckets[bucket] - 1;
+                if (hashes[index] == hash && sameKey(index, name, entry)) {
+                    names[index] = name;
+                    entries[index] = entry;
+                    values[index] = value;
+                    return;
+                }
+
+                bucket = (bucket + 1) & mask;
+            }
+
+            if (size == names.length) {
+                int capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                entries = Arrays.copyOf(entries, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            names[size] = name;
+            entries[size] = entry;
+            hashes[size] = hash;
+            values[size] = value;
+            size++;
+
+            if (size * 2 > buckets.length) {
+                buckets = KeyBuckets.make(hashes, size);
+            } else {
+                buckets[bucket] = size;
+            }
+        }
+
+        /**
+         * Checks whether an existing property has the same key as a new property.
+         * @param index         index of the existing property
+         * @param name          name of the new property or null if it uses its key in the table
+         * @param entry         entry of the new property in the table
+         * @return true if the keys are equal, false otherwise
+         */
+        private boolean sameKey(int index, String name, int entry) {
+            if (name != null) {
+                return keyEquals(TOKENS, names[index], entries[index], name);
+            }
+
+            if (names[index] != null) {
+                return TOKENS.keyEquals(entry, names[index]);
+            }
+
+            return TOKENS.keysEqual(entries[index], entry);
+        }
+
+    }
+
+}
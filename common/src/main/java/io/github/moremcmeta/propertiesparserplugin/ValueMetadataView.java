@@ -0,0 +1,423 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link PrimitiveMetadataView} whose accessors all find a value by its key or index and then read the value.
+ * Subclasses only need to find values through {@link #value(String)} and {@link #value(int)}, along with
+ * providing their keys.
+ * @author soir20
+ */
+abstract class ValueMetadataView implements PrimitiveMetadataView {
+
+    @Override
+    public Optional<String> stringValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.stringValue();
+    }
+
+    @Override
+    public Optional<String> stringValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.stringValue();
+    }
+
+    @Override
+    public Optional<Integer> integerValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.integerValue();
+    }
+
+    @Override
+    public Optional<Integer> integerValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.integerValue();
+    }
+
+    @Override
+    public Optional<Long> longValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.longValue();
+    }
+
+    @Override
+    public Optional<Long> longValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.longValue();
+    }
+
+    @Override
+    public Optional<Float> floatValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.floatValue();
+    }
+
+    @Override
+    public Optional<Float> floatValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.floatValue();
+    }
+
+    @Override
+    public Optional<Double> doubleValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.doubleValue();
+    }
+
+    @Override
+    public Optional<Double> doubleValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.doubleValue();
+    }
+
+    @Override
+    public Optional<Boolean> booleanValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.booleanValue();
+    }
+
+    @Override
+    public Optional<Boolean> booleanValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.booleanValue();
+    }
+
+    @Override
+    public int integerValueOr(String key, int defaultValue) {
+        MetadataValue value = value(key);
+        return value == null ? defaultValue : value.integerValueOr(defaultValue);
+    }
+
+    @Override
+    public int integerValueOr(int index, int defaultValue) {
+        MetadataValue value = value(index);
+        return value == null ? defaultValue : value.integerValueOr(defaultValue);
+    }
+
+    @Override
+    public long longValueOr(String key, long defaultValue) {
+        MetadataValue value = value(key);
+        return value == null ? defaultValue : value.longValueOr(defaultValue);
+    }
+
+    @Override
+    public long longValueOr(int index, long defaultValue) {
+        MetadataValue value = value(index);
+        return value == null ? defaultValue : value.longValueOr(defaultValue);
+    }
+
+    @Override
+    public float floatValueOr(String key, float defaultValue) {
+        MetadataValue value = value(key);
+        return value == null ? defaultValue : value.floatValueOr(defaultValue);
+    }
+
+    @Override
+    public float floatValueOr(int index, float defaultValue) {
+        MetadataValue value = value(index);
+        return value == null ? defaultValue : value.floatValueOr(defaultValue);
+    }
+
+    @Override
+    public double doubleValueOr(String key, double defaultValue) {
+        MetadataValue value = value(key);
+        return value == null ? defaultValue : value.doubleValueOr(defaultValue);
+    }
+
+    @Override
+    public double doubleValueOr(int index, double defaultValue) {
+        MetadataValue value = value(index);
+        return value == null ? defaultValue : value.doubleValueOr(defaultValue);
+    }
+
+    @Override
+    public boolean booleanValueOr(String key, boolean defaultValue) {
+        MetadataValue value = value(key);
+        return value == null ? defaultValue : value.booleanValueOr(defaultValue);
+    }
+
+    @Override
+    public boolean booleanValueOr(int index, boolean defaultValue) {
+        MetadataValue value = value(index);
+        return value == null ? defaultValue : value.booleanValueOr(defaultValue);
+    }
+
+    @Override
+    public Optional<InputStream> byteStreamValue(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.byteStreamValue();
+    }
+
+    @Override
+    public Optional<InputStream> byteStreamValue(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.byteStreamValue();
+    }
+
+    @Override
+    public Optional<MetadataView> subView(String key) {
+        MetadataValue value = value(key);
+        return value == null ? Optional.empty() : value.subView();
+    }
+
+    @Override
+    public Optional<MetadataView> subView(int index) {
+        MetadataValue value = value(index);
+        return value == null ? Optional.empty() : value.subView();
+    }
+
+    /**
+     * Gets the value associated with a key.
+     * @param key       key associated with the value
+     * @return the value or null if it is not present
+     */
+    abstract MetadataValue value(String key);
+
+    /**
+     * Gets the value at an index.
+     * @param index       index of the value
+     * @return the value or null if it is not present
+     * @throws io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException if the index is negative
+     */
+    abstract MetadataValue value(int index);
+
+    /**
+     * A single value in a view, which can be read as any of the types a view supports.
+     * @author soir20
+     */
+    interface MetadataValue {
+
+        /**
+         * Gets this value as a string.
+         * @return value as a string or {@link Optional#empty()} if this value is not a string
+         */
+        Optional<String> stringValue();
+
+        /**
+         * Gets this value as an integer.
+         * @return value as an integer or {@link Optional#empty()} if this value is not an integer
+         */
+        Optional<Integer> integerValue();
+
+        /**
+         * Gets this value as a long.
+         * @return value as a long or {@link Optional#empty()} if this value is not a long
+         */
+        Optional<Long> longValue();
+
+        /**
+         * Gets this value as a finite float.
+         * @return value as a finite float or {@link Optional#empty()} if this value is not a finite float
+         */
+        Optional<Float> floatValue();
+
+        /**
+         * Gets this value as a finite double.
+         * @return value as a finite double or {@link Optional#empty()} if this value is not a finite double
+         */
+        Optional<Double> doubleValue();
+
+        /**
+         * Gets this value as a boolean.
+         * @return value as a boolean or {@link Optional#empty()} if this value is not a boolean
+         */
+        Optional<Boolean> booleanValue();
+
+        /**
+         * Gets this value as an integer without boxing it.
+         * @param defaultValue      value to return if this value is not an integer
+         * @return value as an integer or the default value
+         */
+        default int integerValueOr(int defaultValue) {
+            Optional<Integer> value = integerValue();
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        /**
+         * Gets this value as a long without boxing it.
+         * @param defaultValue      value to return if this value is not a long
+         * @return value as a long or the default value
+         */
+        default long longValueOr(long defaultValue) {
+            Optional<Long> value = longValue();
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        /**
+         * Gets this value as a finite float without boxing it.
+         * @param defaultValue      value to return if this value is not a finite float
+         * @return value as a finite float or the default value
+         */
+        default float floatValueOr(float defaultValue) {
+            Optional<Float> value = floatValue();
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        /**
+         * Gets this value as a finite double without boxing it.
+         * @param defaultValue      value to return if this value is not a finite double
+         * @return value as a finite double or the default value
+         */
+        default double doubleValueOr(double defaultValue) {
+            Optional<Double> value = doubleValue();
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        /**
+         * Gets this value as a boolean without boxing it.
+         * @param defaultValue      value to return if this value is not a boolean
+         * @return value as a boolean or the default value
+         */
+        default boolean booleanValueOr(boolean defaultValue) {
+            Optional<Boolean> value = booleanValue();
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        /**
+         * Gets this value as a byte stream.
+         * @return byte stream or {@link Optional#empty()} if this value is not a byte stream
+         */
+        Optional<InputStream> byteStreamValue();
+
+        /**
+         * Gets this value as a sub view.
+         * @return sub view or {@link Optional#empty()} if this value is not a sub view
+         */
+        Optional<MetadataView> subView();
+
+    }
+
+    /**
+     * Value stored under a key in another view. The fields are final, so a value can be published to
+     * other threads without a lock.
+     * @author soir20
+     */
+    static final class KeyedValue implements MetadataValue {
+        private final MetadataView VIEW;
+        private final String KEY;
+
+        /**
+         * Creates a new value that reads from another view.
+         * @param view      view containing the value
+         * @param key       key of the value in the view
+         */
+        public KeyedValue(MetadataView view, String key) {
+            VIEW = requireNonNull(view, "View cannot be null");
+            KEY = requireNonNull(key, "Key cannot be null");
+        }
+
+        @Override
+        public Optional<String> stringValue() {
+            return VIEW.stringValue(KEY);
+        }
+
+        @Override
+        public Optional<Integer> integerValue() {
+            return VIEW.integerValue(KEY);
+        }
+
+        @Override
+        public Optional<Long> longValue() {
+            return VIEW.longValue(KEY);
+        }
+
+        @Override
+        public Optional<Float> floatValue() {
+            return VIEW.floatValue(KEY);
+        }
+
+        @Override
+        public Optional<Double> doubleValue() {
+            return VIEW.doubleValue(KEY);
+        }
+
+        @Override
+        public Optional<Boolean> booleanValue() {
+            return VIEW.booleanValue(KEY);
+        }
+
+        @Override
+        public int integerValueOr(int defaultValue) {
+            if (VIEW instanceof PrimitiveMetadataView primitiveView) {
+                return primitiveView.integerValueOr(KEY, defaultValue);
+            }
+
+            Optional<Integer> value = VIEW.integerValue(KEY);
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        @Override
+        public long longValueOr(long defaultValue) {
+            if (VIEW instanceof PrimitiveMetadataView primitiveView) {
+                return primitiveView.longValueOr(KEY, defaultValue);
+            }
+
+            Optional<Long> value = VIEW.longValue(KEY);
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        @Override
+        public float floatValueOr(float defaultValue) {
+            if (VIEW instanceof PrimitiveMetadataView primitiveView) {
+                return primitiveView.floatValueOr(KEY, defaultValue);
+            }
+
+            Optional<Float> value = VIEW.floatValue(KEY);
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        @Override
+        public double doubleValueOr(double defaultValue) {
+            if (VIEW instanceof PrimitiveMetadataView primitiveView) {
+                return primitiveView.doubleValueOr(KEY, defaultValue);
+            }
+
+            Optional<Double> value = VIEW.doubleValue(KEY);
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        @Override
+        public boolean booleanValueOr(boolean defaultValue) {
+            if (VIEW instanceof PrimitiveMetadataView primitiveView) {
+                return primitiveView.booleanValueOr(KEY, defaultValue);
+            }
+
+            Optional<Boolean> value = VIEW.booleanValue(KEY);
+            return value.isPresent() ? value.get() : defaultValue;
+        }
+
+        @Override
+        public Optional<InputStream> byteStreamValue() {
+            return VIEW.byteStreamValue(KEY);
+        }
+
+        @Override
+        public Optional<MetadataView> subView() {
+            return VIEW.subView(KEY);
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded pool of frequently repeated short values, such as small integers and booleans, so that equal
+ * values read during the same resource reload share a single {@link PropertiesMetadataView.Value}. Only
+ * values up to {@link #MAX_LENGTH} characters are pooled, and once the pool is full, new values are
+ * created without being pooled.
+ * @author soir20
+ */
+final class ValuePool {
+    static final int MAX_LENGTH = 16;
+    static final int MAX_SIZE = 4096;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /* Lookups read the table without locking. A lookup that races with an insertion may see the new
+       string before its value, in which case it retries under the lock. Values are safe to share
+       because their only mutable state is a cache that is idempotent to fill. */
+    private volatile Table table;
+    private int size;
+    private final LongAdder HITS;
+    private final LongAdder MISSES;
+
+    /**
+     * Creates a new, empty pool.
+     */
+    public ValuePool() {
+        table = new Table(INITIAL_CAPACITY);
+        HITS = new LongAdder();
+        MISSES = new LongAdder();
+    }
+
+    /**
+     * Gets a value equal to the value of an entry in a token table, reusing a pooled value when possible.
+     * The value is only created as a string when it is not pooled.
+     * @param tokens    table containing the entry
+     * @param entry     index of the entry
+     * @return value with the entry's value
+     */
+    public PropertiesMetadataView.Value intern(PropertiesTokens tokens, int entry) {
+        requireNonNull(tokens, "Tokens cannot be null");
+        if (tokens.valueLength(entry) > MAX_LENGTH) {
+            MISSES.increment();
+            return new PropertiesMetadataView.Value(tokens.value(entry));
+        }
+
+        Table table = this.table;
+        int hash = tokens.valueHash(entry);
+        int mask = table.STRINGS.length - 1;
+        for (int bucket = KeyBuckets.spread(hash) & mask; table.STRINGS[bucket] != null; bucket = (bucket + 1) & mask) {
+            String pooled = table.STRINGS[bucket];
+            if (pooled.hashCode() == hash && tokens.valueEquals(entry, pooled)) {
+                PropertiesMetadataView.Value pooledValue = table.VALUES[bucket];
+                if (pooledValue == null) {
+                    break;
+                }
+
+                HITS.increment();
+                return pooledValue;
+            }
+        }
+
+        return insert(tokens.value(entry));
+    }
+
+    /**
+     * Gets the number of lookups that reused a pooled value.
+     * @return number of lookups that found a pooled value
+     */
+    public long hits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Gets the number of lookups that created a new value, whether or not the new value was pooled.
+     * @return number of lookups that did not find a pooled value
+     */
+    public long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Adds a value to the pool if no equal value was added since the last lookup and the pool is not full.
+     * @param value     string value to add
+     * @return pooled value equal to the given string or a new value if the pool is full
+     */
+    private synchronized PropertiesMetadataView.Value insert(String value) {
+        Table table = this.table;
+        int bucket = find(table, value);
+        if (table.STRINGS[bucket] != null) {
+            HITS.increment();
+            return table.VALUES[bucket];
+        }
+
+        MISSES.increment();
+        PropertiesMetadataView.Value newValue = new PropertiesMetadataView.Value(value);
+        if (size == MAX_SIZE) {
+            return newValue;
+        }
+
+        // Keep the table at most half full so that probe sequences stay short
+        if ((size + 1) * 2 > table.STRINGS.length) {
+            Table resized = new Table(table.STRINGS.length * 2);
+            for (int index = 0; index < table.STRINGS.length; index++) {
+                String existing = table.STRINGS[index];
+                if (existing != null) {
+                    int newBucket = find(resized, existing);
+                    resized.VALUES[newBucket] = table.VALUES[index];
+                    resized.STRINGS[newBucket] = existing;
+                }
+            }
+
+            table = resized;
+            bucket = find(table, value);
+        }
+
+        table.VALUES[bucket] = newValue;
+        table.STRINGS[bucket] = value;
+        size++;
+        this.table = table;
+        return newValue;
+    }
+
+    /**
+     * Finds the bucket that contains a value or the empty bucket where it would be added.
+     * @param table     table to search
+     * @param value     string value to find
+     * @return index of the bucket
+     */
+    private static int find(Table table, String value) {
+        int hash = value.hashCode();
+        int mask = table.STRINGS.length - 1;
+        int bucket = KeyBuckets.spread(hash) & mask;
+        while (table.STRINGS[bucket] != null && !table.STRINGS[bucket].equals(value)) {
+            bucket = (bucket + 1) & mask;
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Open-addressing hash table of pooled values, keyed by their strings.
+     * @author soir20
+     */
+    private static final class Table {
+        private final String[] STRINGS;
+        private final PropertiesMetadataView.Value[] VALUES;
+
+        /**
+         * Creates a new, empty table.
+         * @param capacity      number of buckets, which must be a power of two
+         */
+        public Table(int capacity) {
+            STRINGS = new String[capacity];
+            VALUES = new PropertiesMetadataView.Value[capacity];
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link CombineState}.
+ * @author soir20
+ */
+public final class CombineStateTest {
+    private static final ResourceLocation FIRST = new ResourceLocation("a.png.properties");
+    private static final ResourceLocation SECOND = new ResourceLocation("b.png.properties");
+    private static final MetadataView FIRST_VIEW = makeView("first");
+    private static final MetadataView SECOND_VIEW = makeView("second");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void sortedViews_SameLocations_ViewsInLocationOrder() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(SECOND, SECOND_VIEW, FIRST, FIRST_VIEW));
+        MetadataView[] views = state.sortedViews(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW), 1);
+
+        assertEquals(3, views.length);
+        assertSame(FIRST_VIEW, views[1]);
+        assertSame(SECOND_VIEW, views[2]);
+    }
+
+    @Test
+    public void sortedViews_LocationMissing_IllegalArgumentException() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW));
+
+        expectedException.expect(IllegalArgumentException.class);
+        state.sortedViews(ImmutableMap.of(FIRST, FIRST_VIEW), 0);
+    }
+
+    @Test
+    public void sortedViews_LocationReplaced_IllegalArgumentException() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW));
+
+        expectedException.expect(IllegalArgumentException.class);
+        state.sortedViews(ImmutableMap.of(FIRST, FIRST_VIEW, new ResourceLocation("c.png.properties"), SECOND_VIEW), 0);
+    }
+
+    @Test
+    public void parts_LocationMissing_IllegalArgumentException() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW));
+
+        expectedException.expect(IllegalArgumentException.class);
+        state.parts(ImmutableMap.of(FIRST, FIRST_VIEW));
+    }
+
+    @Test
+    public void parts_LocationReplaced_IllegalArgumentException() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW));
+
+        expectedException.expect(IllegalArgumentException.class);
+        state.parts(ImmutableMap.of(FIRST, FIRST_VIEW, new ResourceLocation("c.png.properties"), SECOND_VIEW));
+    }
+
+    @Test
+    public void update_RemovalNotListedAsChanged_StateMatchesNewLocations() throws InvalidMetadataException {
+        CombineState state = CombineState.build(ImmutableMap.of(FIRST, FIRST_VIEW, SECOND, SECOND_VIEW));
+        CombineState updated = state.update(ImmutableMap.of(FIRST, FIRST_VIEW), ImmutableSet.of());
+
+        MetadataView[] views = updated.sortedViews(ImmutableMap.of(FIRST, FIRST_VIEW), 0);
+        assertEquals(1, views.length);
+        assertSame(FIRST_VIEW, views[0]);
+        assertEquals(1, updated.parts(ImmutableMap.of(FIRST, FIRST_VIEW)).length);
+    }
+
+    @Test
+    public void buildOnce_ScratchHasOtherSections_NoConflict() throws InvalidMetadataException {
+        Map<String, ResourceLocation> scratch = new HashMap<>();
+        scratch.put("texture", SECOND);
+
+        CombineState.buildOnce(ImmutableMap.of(FIRST, makeSectionView("texture")), scratch);
+        assertEquals(ImmutableMap.of("texture", FIRST), scratch);
+    }
+
+    @Test
+    public void buildOnce_ConflictingSections_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        CombineState.buildOnce(
+                ImmutableMap.of(FIRST, makeSectionView("texture"), SECOND, makeSectionView("texture")),
+                new HashMap<>()
+        );
+    }
+
+    @Test
+    public void update_BuiltOnce_AllViewsRead() throws InvalidMetadataException {
+        CombineState state = CombineState.buildOnce(ImmutableMap.of(FIRST, FIRST_VIEW), new HashMap<>());
+
+        expectedException.expect(InvalidMetadataException.class);
+        state.update(
+                ImmutableMap.of(FIRST, makeSectionView("texture"), SECOND, makeSectionView("texture")),
+                ImmutableSet.of(SECOND)
+        );
+    }
+
+    private static MetadataView makeSectionView(String section) {
+        return new PropertiesMetadataView(section, new PropertiesMetadataView.Value(PropertiesMetadataView.EMPTY));
+    }
+
+    private static MetadataView makeView(String name) {
+        return new PropertiesMetadataView(
+                PropertiesMetadataParser.ANIMATION_SECTION,
+                new PropertiesMetadataView.Value(new PropertiesMetadataView(
+                        PropertiesMetadataParser.PARTS_KEY,
+                        new PropertiesMetadataView.Value(new ListMetadataView(
+                                new PropertiesMetadataView.Value(new PropertiesMetadataView(
+                                        "name",
+                                        new PropertiesMetadataView.Value(name)
+                                ))
+                        ))
+                ))
+        );
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.RootResourceName;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link DefaultMetadataCache}.
+ * @author soir20
+ */
+public final class DefaultMetadataCacheTest {
+    private static final ResourceLocation LAVA_METADATA = new ResourceLocation("textures/block/lava.png.mcmeta");
+    private static final ResourceLocation WATER_METADATA = new ResourceLocation("textures/block/water.png.mcmeta");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void read_NullPack_NullPointerException() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+
+        expectedException.expect(NullPointerException.class);
+        cache.read(null, LAVA_METADATA);
+    }
+
+    @Test
+    public void read_NullLocation_NullPointerException() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+
+        expectedException.expect(NullPointerException.class);
+        cache.read(new CountingPack("{}"), null);
+    }
+
+    @Test
+    public void read_FirstRead_ReadAndMissCounted() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack("{ \"animation\": { \"frametime\": 2 } }");
+
+        MetadataView view = cache.read(pack, LAVA_METADATA).view().orElseThrow();
+
+        assertEquals(2, (int) view.subView("animation").orElseThrow().integerValue("frametime").orElseThrow());
+        assertEquals(1, pack.reads);
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void read_SamePackAndLocation_CachedViewReused() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack("{ \"animation\": {} }");
+
+        MetadataView firstView = cache.read(pack, LAVA_METADATA).view().orElseThrow();
+        MetadataView secondView = cache.read(pack, LAVA_METADATA).view().orElseThrow();
+
+        assertSame(firstView, secondView);
+        assertEquals(1, pack.reads);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void read_DifferentLocations_EachRead() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack("{ \"animation\": {} }");
+
+        cache.read(pack, LAVA_METADATA);
+        cache.read(pack, WATER_METADATA);
+
+        assertEquals(2, pack.reads);
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void read_DifferentPacksSameLocation_EachRead() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack firstPack = new CountingPack("{ \"animation\": {} }");
+        CountingPack secondPack = new CountingPack("{ \"animation\": {} }");
+
+        MetadataView firstView = cache.read(firstPack, LAVA_METADATA).view().orElseThrow();
+        MetadataView secondView = cache.read(secondPack, LAVA_METADATA).view().orElseThrow();
+
+        assertNotSame(firstView, secondView);
+        assertEquals(1, firstPack.reads);
+        assertEquals(1, secondPack.reads);
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void read_InvalidJson_EmptyAndCached() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack("dummy");
+
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isEmpty());
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isEmpty());
+        assertEquals(1, pack.reads);
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void read_UnreadableFile_EmptyAndCached() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack(null);
+
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isEmpty());
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isEmpty());
+        assertEquals(1, pack.reads);
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void read_CacheFull_ReadWithoutCaching() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        CountingPack pack = new CountingPack("{}");
+        for (int index = 0; index < DefaultMetadataCache.MAX_SIZE; index++) {
+            cache.read(pack, new ResourceLocation("textures/block/texture" + index + ".png.mcmeta"));
+        }
+
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isPresent());
+        assertTrue(cache.read(pack, LAVA_METADATA).view().isPresent());
+
+        assertEquals(DefaultMetadataCache.MAX_SIZE + 2, pack.reads);
+        assertEquals(0, cache.hits());
+
+        cache.read(pack, new ResourceLocation("textures/block/texture0.png.mcmeta"));
+        assertEquals(DefaultMetadataCache.MAX_SIZE + 2, pack.reads);
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void view_RequestedTwice_ParsedOnce() {
+        DefaultMetadataCache cache = new DefaultMetadataCache();
+        DefaultMetadataCache.CachedFile file = cache.read(new CountingPack("{ \"animation\": {} }"), LAVA_METADATA);
+
+        assertSame(file.view().orElseThrow(), file.view().orElseThrow());
+    }
+
+    /**
+     * Pack that provides the same contents for every file and counts how many times its files are read.
+     * @author soir20
+     */
+    private static final class CountingPack implements ResourceRepository.Pack {
+        private final String CONTENTS;
+        private int reads;
+
+        /**
+         * Creates a new pack.
+         * @param contents      contents of every file or null if reading any file fails
+         */
+        public CountingPack(String contents) {
+            CONTENTS = contents;
+        }
+
+        @Override
+        public Optional<InputStream> resource(ResourceLocation location) {
+            reads++;
+            if (CONTENTS == null) {
+                return Optional.of(new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Dummy read failure");
+                    }
+                });
+            }
+
+            return Optional.of(new ByteArrayInputStream(CONTENTS.getBytes()));
+        }
+
+        @Override
+        public ResourceLocation locateRootResource(RootResourceName rootResourceName) {
+            return new ResourceLocation("root/" + rootResourceName.toString());
+        }
+    }
+
+}
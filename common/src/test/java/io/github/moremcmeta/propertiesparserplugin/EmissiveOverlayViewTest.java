@@ -0,0 +1,126 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link EmissiveOverlayView}.
+ * @author soir20
+ */
+public final class EmissiveOverlayViewTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullTexture_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new EmissiveOverlayView(null);
+    }
+
+    @Test
+    public void keys_Root_OnlyOverlaySection() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        assertEquals(1, view.size());
+        assertEquals(ImmutableList.of("overlay"), ImmutableList.copyOf(view.keys()));
+        assertTrue(view.hasKey("overlay"));
+        assertTrue(view.hasKey(0));
+        assertFalse(view.hasKey("texture"));
+        assertFalse(view.hasKey(1));
+        assertFalse(view.hasKey(null));
+    }
+
+    @Test
+    public void hasKey_NegativeIndex_NegativeKeyIndexException() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasKey(-1);
+    }
+
+    @Test
+    public void subView_RequestedTwice_SameSection() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        MetadataView section = view.subView("overlay").orElseThrow();
+        assertSame(section, view.subView("overlay").orElseThrow());
+        assertSame(section, view.subView(0).orElseThrow());
+    }
+
+    @Test
+    public void stringValue_OverlaySection_Empty() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        assertFalse(view.stringValue("overlay").isPresent());
+        assertFalse(view.booleanValue(0).isPresent());
+        assertEquals(5, view.integerValueOr("overlay", 5));
+    }
+
+    @Test
+    public void subView_Overlay_TextureAndEmissive() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        MetadataView section = view.subView("overlay").orElseThrow();
+
+        assertEquals(2, section.size());
+        assertEquals(ImmutableList.of("texture", "emissive"), ImmutableList.copyOf(section.keys()));
+        assertEquals("minecraft:textures/block/ore_e.png", section.stringValue("texture").orElseThrow());
+        assertEquals("minecraft:textures/block/ore_e.png", section.stringValue(0).orElseThrow());
+        assertTrue(section.booleanValue("emissive").orElseThrow());
+        assertTrue(section.booleanValue(1).orElseThrow());
+        assertEquals("true", section.stringValue("emissive").orElseThrow());
+    }
+
+    @Test
+    public void subView_ByIndex_SameAsByName() {
+        EmissiveOverlayView view = new EmissiveOverlayView("minecraft:textures/block/ore_e.png");
+        MetadataView section = view.subView(0).orElseThrow();
+        assertEquals("minecraft:textures/block/ore_e.png", section.stringValue("texture").orElseThrow());
+        assertFalse(view.subView(1).isPresent());
+        assertFalse(view.subView("texture").isPresent());
+    }
+
+    @Test
+    public void subView_MissingKeysInSection_Empty() {
+        MetadataView section = new EmissiveOverlayView("minecraft:textures/block/ore_e.png")
+                .subView("overlay").orElseThrow();
+
+        assertFalse(section.hasKey("frames"));
+        assertFalse(section.hasKey(2));
+        assertFalse(section.stringValue("frames").isPresent());
+        assertFalse(section.stringValue(2).isPresent());
+        assertFalse(section.integerValue("texture").isPresent());
+        assertFalse(section.byteStreamValue("texture").isPresent());
+        assertFalse(section.subView("emissive").isPresent());
+    }
+
+    @Test
+    public void subView_NegativeIndexInSection_NegativeKeyIndexException() {
+        MetadataView section = new EmissiveOverlayView("minecraft:textures/block/ore_e.png")
+                .subView("overlay").orElseThrow();
+        expectedException.expect(NegativeKeyIndexException.class);
+        section.stringValue(-1);
+    }
+
+}
\ No newline at end of file
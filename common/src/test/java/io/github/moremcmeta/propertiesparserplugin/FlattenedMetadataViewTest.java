@@ -0,0 +1,289 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.CombinedMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link FlattenedMetadataView}.
+ * @author soir20
+ */
+public final class FlattenedMetadataViewTest {
+    private static final InputStream MOCK_STREAM = new ByteArrayInputStream("stream".getBytes());
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullList_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new FlattenedMetadataView(null);
+    }
+
+    @Test
+    public void construct_NullView_NullPointerException() {
+        List<MetadataView> views = new ArrayList<>();
+        views.add(null);
+
+        expectedException.expect(NullPointerException.class);
+        new FlattenedMetadataView(views);
+    }
+
+    @Test
+    public void construct_NoViews_Empty() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of());
+        assertEquals(0, view.size());
+        assertFalse(view.keys().iterator().hasNext());
+        assertFalse(view.hasKey("a"));
+        assertFalse(view.hasKey(0));
+    }
+
+    @Test
+    public void keys_OverlappingViews_FirstAppearanceOrder() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                makeView("b", "1", "a", "2"),
+                makeView("c", "3", "a", "4", "d", "5")
+        ));
+
+        assertEquals(4, view.size());
+        assertEquals(ImmutableList.of("b", "a", "c", "d"), ImmutableList.copyOf(view.keys()));
+    }
+
+    @Test
+    public void stringValue_SameKeyInTwoViews_EarlierViewTakesPrecedence() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                makeView("a", "first"),
+                makeView("a", "second", "b", "other")
+        ));
+
+        assertEquals("first", view.stringValue("a").orElseThrow());
+        assertEquals("first", view.stringValue(0).orElseThrow());
+        assertEquals("other", view.stringValue(1).orElseThrow());
+        assertFalse(view.stringValue(2).isPresent());
+        assertFalse(view.stringValue("c").isPresent());
+        assertFalse(view.stringValue(null).isPresent());
+    }
+
+    @Test
+    public void integerValueOr_PrimitiveOwner_ValueFromOwner() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                makeView("width", "16", "name", "abc")
+        ));
+
+        assertEquals(16, view.integerValueOr("width", -1));
+        assertEquals(-1, view.integerValueOr("name", -1));
+        assertEquals(-1, view.integerValueOr("missing", -1));
+        assertEquals(16L, view.longValueOr(0, -1L));
+        assertEquals(16F, view.floatValueOr("width", -1F), 0);
+        assertEquals(16D, view.doubleValueOr("width", -1D), 0);
+        assertTrue(view.booleanValueOr("missing", true));
+    }
+
+    @Test
+    public void integerValueOr_OtherOwner_ValueFromOwner() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                new CombinedMetadataView(ImmutableList.of(makeView("width", "16")))
+        ));
+
+        assertEquals(16, view.integerValueOr("width", -1));
+        assertEquals(16, view.integerValueOr(0, -1));
+        assertEquals(-1, view.integerValueOr(1, -1));
+    }
+
+    @Test
+    public void byteStreamValueAndSubView_ValuesFromOwners_Found() {
+        PropertiesMetadataView subView = makeView("x", "1");
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                new PropertiesMetadataView("texture", new PropertiesMetadataView.Value(MOCK_STREAM)),
+                new PropertiesMetadataView("section", new PropertiesMetadataView.Value(subView))
+        ));
+
+        assertSame(MOCK_STREAM, view.byteStreamValue("texture").orElseThrow());
+        assertSame(subView, view.subView("section").orElseThrow());
+        assertSame(subView, view.subView(1).orElseThrow());
+        assertFalse(view.subView("texture").isPresent());
+    }
+
+    @Test
+    public void construct_NestedFlattenedView_OwnersMerged() {
+        FlattenedMetadataView inner = new FlattenedMetadataView(ImmutableList.of(
+                makeView("a", "inner"),
+                makeView("b", "innerB")
+        ));
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                makeView("b", "outer"),
+                inner
+        ));
+
+        assertEquals(ImmutableList.of("b", "a"), ImmutableList.copyOf(view.keys()));
+        assertEquals("outer", view.stringValue("b").orElseThrow());
+        assertEquals("inner", view.stringValue("a").orElseThrow());
+    }
+
+    @Test
+    public void hasKey_NegativeIndex_NegativeKeyIndexException() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(makeView("a", "1")));
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasKey(-1);
+    }
+
+    @Test
+    public void stringValue_NegativeIndex_NegativeKeyIndexException() {
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(makeView("a", "1")));
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.stringValue(-1);
+    }
+
+    @Test
+    public void allAccessors_RandomViews_SameAsCombinedView() {
+        Random random = new Random(5);
+        String[] values = { "0", "-3", "1.5", "true", "abc", "2147483648" };
+
+        for (int trial = 0; trial < 200; trial++) {
+            List<MetadataView> views = new ArrayList<>();
+            int viewCount = random.nextInt(20);
+            for (int viewIndex = 0; viewIndex < viewCount; viewIndex++) {
+                Map<String, PropertiesMetadataView.Value> properties = new LinkedHashMap<>();
+                int keyCount = random.nextInt(12);
+                for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                    properties.put(
+                            "key" + random.nextInt(30),
+                            new PropertiesMetadataView.Value(values[random.nextInt(values.length)])
+                    );
+                }
+
+                views.add(new PropertiesMetadataView(properties));
+            }
+
+            assertSameAsCombined(new CombinedMetadataView(views), new FlattenedMetadataView(views));
+            assertSameAsCombined(
+                    new CombinedMetadataView(ImmutableList.of(new CombinedMetadataView(views), makeView("key1", "x"))),
+                    new FlattenedMetadataView(ImmutableList.of(new FlattenedMetadataView(views), makeView("key1", "x")))
+            );
+        }
+    }
+
+    @Test
+    public void allAccessors_RandomViewsWithMixedTypes_SameAsCombinedView() {
+        Random random = new Random(11);
+
+        for (int trial = 0; trial < 200; trial++) {
+            List<MetadataView> views = new ArrayList<>();
+            int viewCount = random.nextInt(20);
+            for (int viewIndex = 0; viewIndex < viewCount; viewIndex++) {
+                Map<String, PropertiesMetadataView.Value> properties = new LinkedHashMap<>();
+                int keyCount = random.nextInt(12);
+                for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                    properties.put("key" + random.nextInt(30), makeRandomValue(random));
+                }
+
+                views.add(new PropertiesMetadataView(properties));
+            }
+
+            assertSameAsCombined(new CombinedMetadataView(views), new FlattenedMetadataView(views));
+            assertSameAsCombined(
+                    new CombinedMetadataView(ImmutableList.of(new CombinedMetadataView(views), makeView("key1", "x"))),
+                    new FlattenedMetadataView(ImmutableList.of(new FlattenedMetadataView(views), makeView("key1", "x")))
+            );
+        }
+    }
+
+    @Test
+    public void allAccessors_SameKeyDifferentTypes_EarliestLayerOwnsKey() {
+        InputStream stream = new ByteArrayInputStream("later".getBytes());
+        PropertiesMetadataView subView = makeView("x", "1");
+        FlattenedMetadataView view = new FlattenedMetadataView(ImmutableList.of(
+                makeView("a", "abc"),
+                new PropertiesMetadataView("a", new PropertiesMetadataView.Value(subView)),
+                new PropertiesMetadataView("b", new PropertiesMetadataView.Value(subView)),
+                new PropertiesMetadataView("b", new PropertiesMetadataView.Value(stream)),
+                makeView("b", "5")
+        ));
+
+        assertEquals("abc", view.stringValue("a").orElseThrow());
+        assertFalse(view.subView("a").isPresent());
+        assertSame(subView, view.subView("b").orElseThrow());
+        assertFalse(view.byteStreamValue("b").isPresent());
+        assertFalse(view.integerValue("b").isPresent());
+        assertEquals(-1, view.integerValueOr(1, -1));
+    }
+
+    private static void assertSameAsCombined(MetadataView expected, FlattenedMetadataView actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(ImmutableList.copyOf(expected.keys()), ImmutableList.copyOf(actual.keys()));
+
+        for (int index = 0; index < 32; index++) {
+            String key = "key" + index;
+            assertEquals(expected.hasKey(key), actual.hasKey(key));
+            assertEquals(expected.stringValue(key), actual.stringValue(key));
+            assertEquals(expected.integerValue(key), actual.integerValue(key));
+            assertEquals(expected.longValue(key), actual.longValue(key));
+            assertEquals(expected.floatValue(key), actual.floatValue(key));
+            assertEquals(expected.doubleValue(key), actual.doubleValue(key));
+            assertEquals(expected.booleanValue(key), actual.booleanValue(key));
+            assertEquals(expected.byteStreamValue(key), actual.byteStreamValue(key));
+            assertEquals(expected.subView(key), actual.subView(key));
+
+            assertEquals(expected.hasKey(index), actual.hasKey(index));
+            assertEquals(expected.stringValue(index), actual.stringValue(index));
+            assertEquals(expected.integerValue(index), actual.integerValue(index));
+            assertEquals(expected.booleanValue(index), actual.booleanValue(index));
+            assertEquals(expected.byteStreamValue(index), actual.byteStreamValue(index));
+            assertEquals(expected.subView(index), actual.subView(index));
+        }
+    }
+
+    private static PropertiesMetadataView.Value makeRandomValue(Random random) {
+        String[] values = { "0", "-3", "1.5", "true", "abc", "2147483648" };
+        return switch (random.nextInt(4)) {
+            case 0 -> new PropertiesMetadataView.Value(new ByteArrayInputStream(new byte[] { (byte) random.nextInt() }));
+            case 1 -> new PropertiesMetadataView.Value(makeView("x", values[random.nextInt(values.length)]));
+            default -> new PropertiesMetadataView.Value(values[random.nextInt(values.length)]);
+        };
+    }
+
+    private static PropertiesMetadataView makeView(String... keysAndValues) {
+        ImmutableMap.Builder<String, PropertiesMetadataView.Value> builder = ImmutableMap.builder();
+        for (int index = 0; index < keysAndValues.length; index += 2) {
+            builder.put(keysAndValues[index], new PropertiesMetadataView.Value(keysAndValues[index + 1]));
+        }
+
+        return new PropertiesMetadataView(builder.build());
+    }
+
+}
\ No newline at end of file
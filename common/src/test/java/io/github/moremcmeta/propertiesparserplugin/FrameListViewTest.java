@@ -0,0 +1,388 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link FrameListView}.
+ * @author soir20
+ */
+public final class FrameListViewTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void build_NoFrames_Empty() {
+        assertFalse(new FrameListView.Builder().build().isPresent());
+    }
+
+    @Test
+    public void size_HighestFrameDefined_SizeIncludesAllFramesBefore() {
+        assertEquals(5, makeDemoView().size());
+    }
+
+    @Test
+    public void size_OnlyExtended_SizeIncludesExtendedFrame() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        builder.extend(7);
+        assertEquals(8, builder.build().orElseThrow().size());
+    }
+
+    @Test
+    public void keys_HasFrames_AllIndicesInOrder() {
+        assertEquals(ImmutableList.of("0", "1", "2", "3", "4"), ImmutableList.copyOf(makeDemoView().keys()));
+    }
+
+    @Test
+    public void hasKeyString_FrameIndex_True() {
+        assertTrue(makeDemoView().hasKey("0"));
+        assertTrue(makeDemoView().hasKey("4"));
+    }
+
+    @Test
+    public void hasKeyString_IndexTooLarge_False() {
+        assertFalse(makeDemoView().hasKey("5"));
+        assertFalse(makeDemoView().hasKey("99999999999"));
+    }
+
+    @Test
+    public void hasKeyString_LeadingZeros_False() {
+        assertFalse(makeDemoView().hasKey("01"));
+        assertFalse(makeDemoView().hasKey("00"));
+    }
+
+    @Test
+    public void hasKeyString_NotIndex_False() {
+        assertFalse(makeDemoView().hasKey("-1"));
+        assertFalse(makeDemoView().hasKey("+1"));
+        assertFalse(makeDemoView().hasKey("time"));
+        assertFalse(makeDemoView().hasKey(""));
+        assertFalse(makeDemoView().hasKey(null));
+    }
+
+    @Test
+    public void hasKeyIndex_NegativeIndex_NegativeKeyIndexException() {
+        expectedException.expect(NegativeKeyIndexException.class);
+        makeDemoView().hasKey(-1);
+    }
+
+    @Test
+    public void hasKeyIndex_InRange_True() {
+        assertTrue(makeDemoView().hasKey(4));
+    }
+
+    @Test
+    public void hasKeyIndex_IndexTooLarge_False() {
+        assertFalse(makeDemoView().hasKey(5));
+    }
+
+    @Test
+    public void stringValue_AnyFrame_Empty() {
+        assertFalse(makeDemoView().stringValue("0").isPresent());
+        assertFalse(makeDemoView().stringValue(0).isPresent());
+    }
+
+    @Test
+    public void integerValueIndex_NegativeIndex_NegativeKeyIndexException() {
+        expectedException.expect(NegativeKeyIndexException.class);
+        makeDemoView().integerValue(-1);
+    }
+
+    @Test
+    public void subViewString_FrameIndex_FrameFound() {
+        MetadataView frame = makeDemoView().subView("1").orElseThrow();
+        assertEquals(3, (int) frame.integerValue("index").orElseThrow());
+        assertEquals(10, (int) frame.integerValue("time").orElseThrow());
+    }
+
+    @Test
+    public void subViewString_NotFrameIndex_Empty() {
+        assertFalse(makeDemoView().subView("01").isPresent());
+        assertFalse(makeDemoView().subView("5").isPresent());
+    }
+
+    @Test
+    public void subViewIndex_IndexTooLarge_Empty() {
+        assertFalse(makeDemoView().subView(5).isPresent());
+    }
+
+    @Test
+    public void subView_SameFrameRequestedTwice_SameViewReturned() {
+        FrameListView view = makeDemoView();
+        Optional<MetadataView> first = view.subView(1);
+        assertSame(first, view.subView(1));
+        assertSame(first, view.subView("1"));
+    }
+
+    @Test
+    public void subView_SameImplicitFrameRequestedTwice_SameViewReturned() {
+        FrameListView view = makeDemoView();
+        assertSame(view.subView(3), view.subView(3));
+    }
+
+    @Test
+    public void subViewIndex_NegativeIndex_NegativeKeyIndexException() {
+        expectedException.expect(NegativeKeyIndexException.class);
+        makeDemoView().subView(-1);
+    }
+
+    @Test
+    public void frame_TileMissing_IndexIsFrameIndex() {
+        MetadataView frame = makeDemoView().subView(3).orElseThrow();
+        assertEquals(3, (int) frame.integerValue("index").orElseThrow());
+        assertEquals("3", frame.stringValue("index").orElseThrow());
+    }
+
+    @Test
+    public void frame_DurationPresent_TimeBeforeIndex() {
+        MetadataView frame = makeDemoView().subView(0).orElseThrow();
+        assertEquals(2, frame.size());
+        assertEquals(ImmutableList.of("time", "index"), ImmutableList.copyOf(frame.keys()));
+        assertEquals(5, (int) frame.integerValue(0).orElseThrow());
+        assertEquals(0, (int) frame.integerValue(1).orElseThrow());
+        assertFalse(frame.hasKey(2));
+    }
+
+    @Test
+    public void frame_DurationMissing_OnlyIndex() {
+        MetadataView frame = makeDemoView().subView(2).orElseThrow();
+        assertEquals(1, frame.size());
+        assertEquals(ImmutableList.of("index"), ImmutableList.copyOf(frame.keys()));
+        assertFalse(frame.hasKey("time"));
+        assertFalse(frame.integerValue("time").isPresent());
+        assertEquals(2, (int) frame.integerValue(0).orElseThrow());
+        assertFalse(frame.hasKey(1));
+    }
+
+    @Test
+    public void frame_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView frame = makeDemoView().subView(0).orElseThrow();
+        expectedException.expect(NegativeKeyIndexException.class);
+        frame.stringValue(-1);
+    }
+
+    @Test
+    public void frame_CanonicalInteger_AllTypesConverted() {
+        MetadataView frame = makeDemoView().subView(1).orElseThrow();
+        assertEquals("10", frame.stringValue("time").orElseThrow());
+        assertEquals(10, (int) frame.integerValue("time").orElseThrow());
+        assertEquals(10L, (long) frame.longValue("time").orElseThrow());
+        assertEquals(10f, frame.floatValue("time").orElseThrow(), 0f);
+        assertEquals(10d, frame.doubleValue("time").orElseThrow(), 0d);
+        assertFalse(frame.booleanValue("time").orElseThrow());
+        assertFalse(frame.byteStreamValue("time").isPresent());
+        assertFalse(frame.subView("time").isPresent());
+    }
+
+    @Test
+    public void frame_NegativeInteger_AllTypesConverted() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putDuration(builder, 0, "-2147483648");
+        MetadataView frame = builder.build().orElseThrow().subView(0).orElseThrow();
+        assertEquals("-2147483648", frame.stringValue("time").orElseThrow());
+        assertEquals(Integer.MIN_VALUE, (int) frame.integerValue("time").orElseThrow());
+    }
+
+    @Test
+    public void frame_NonCanonicalInteger_RawStringKept() {
+        MetadataView frame = makeDemoView().subView(4).orElseThrow();
+        assertEquals("05", frame.stringValue("index").orElseThrow());
+        assertEquals(5, (int) frame.integerValue("index").orElseThrow());
+        assertEquals("+7", frame.stringValue("time").orElseThrow());
+        assertEquals(7, (int) frame.integerValue("time").orElseThrow());
+    }
+
+    @Test
+    public void frame_NotInteger_RawStringKept() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "true");
+        putDuration(builder, 0, "2.5");
+        MetadataView frame = builder.build().orElseThrow().subView(0).orElseThrow();
+
+        assertEquals("true", frame.stringValue("index").orElseThrow());
+        assertFalse(frame.integerValue("index").isPresent());
+        assertTrue(frame.booleanValue("index").orElseThrow());
+
+        assertEquals("2.5", frame.stringValue("time").orElseThrow());
+        assertFalse(frame.integerValue("time").isPresent());
+        assertFalse(frame.longValue("time").isPresent());
+        assertEquals(2.5f, frame.floatValue("time").orElseThrow(), 0f);
+        assertEquals(2.5d, frame.doubleValue("time").orElseThrow(), 0d);
+    }
+
+    @Test
+    public void frame_RawReplacedByCanonical_CanonicalUsed() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "abc");
+        putTile(builder, 0, "4");
+        MetadataView frame = builder.build().orElseThrow().subView(0).orElseThrow();
+        assertEquals("4", frame.stringValue("index").orElseThrow());
+    }
+
+    @Test
+    public void frame_CanonicalReplacedByRaw_RawUsed() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "4");
+        putTile(builder, 0, "abc");
+        MetadataView frame = builder.build().orElseThrow().subView(0).orElseThrow();
+        assertEquals("abc", frame.stringValue("index").orElseThrow());
+    }
+
+    @Test
+    public void frame_ManyFrames_AllRetained() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        for (int frame = 499; frame >= 0; frame--) {
+            putTile(builder, frame, String.valueOf(499 - frame));
+            putDuration(builder, frame, String.valueOf(frame * 2));
+        }
+
+        FrameListView view = builder.build().orElseThrow();
+        assertEquals(500, view.size());
+        for (int frame = 0; frame < 500; frame++) {
+            MetadataView frameView = view.subView(frame).orElseThrow();
+            assertEquals(499 - frame, (int) frameView.integerValue("index").orElseThrow());
+            assertEquals(frame * 2, (int) frameView.integerValue("time").orElseThrow());
+        }
+    }
+
+    @Test
+    public void frame_PrimitiveValues_SameAsOptionalValues() {
+        PrimitiveMetadataView frame = (PrimitiveMetadataView) makeDemoView().subView(4).orElseThrow();
+        assertEquals(7, frame.integerValueOr("time", -1));
+        assertEquals(5L, frame.longValueOr("index", -1L));
+        assertEquals(7f, frame.floatValueOr(0, -1f), 0f);
+        assertEquals(5d, frame.doubleValueOr(1, -1d), 0d);
+        assertFalse(frame.booleanValueOr("index", true));
+    }
+
+    @Test
+    public void frame_PrimitiveValuesMissing_DefaultReturned() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "abc");
+        builder.extend(1);
+        FrameListView view = builder.build().orElseThrow();
+
+        PrimitiveMetadataView explicitFrame = (PrimitiveMetadataView) view.subView(0).orElseThrow();
+        assertEquals(-1, explicitFrame.integerValueOr("index", -1));
+        assertEquals(-1, explicitFrame.integerValueOr("time", -1));
+
+        PrimitiveMetadataView implicitFrame = (PrimitiveMetadataView) view.subView(1).orElseThrow();
+        assertEquals(1, implicitFrame.integerValueOr("index", -1));
+        assertEquals(-1, implicitFrame.integerValueOr(1, -1));
+        assertEquals(-1, view.integerValueOr(0, -1));
+    }
+
+    @Test
+    public void frame_HugeGapBeforeLastFrame_GapFramesImplicit() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "3");
+        putDuration(builder, 2000000, "7");
+        FrameListView view = builder.build().orElseThrow();
+
+        assertEquals(2000001, view.size());
+        assertTrue(view.hasKey(1999999));
+        assertTrue(view.hasKey("2000000"));
+        assertFalse(view.hasKey(2000001));
+
+        assertEquals(3, (int) view.subView(0).orElseThrow().integerValue("index").orElseThrow());
+
+        MetadataView gapFrame = view.subView(1234567).orElseThrow();
+        assertEquals(ImmutableList.of("index"), ImmutableList.copyOf(gapFrame.keys()));
+        assertEquals("1234567", gapFrame.stringValue("index").orElseThrow());
+
+        MetadataView lastFrame = view.subView("2000000").orElseThrow();
+        assertEquals(7, (int) lastFrame.integerValue("time").orElseThrow());
+        assertEquals(2000000, (int) lastFrame.integerValue("index").orElseThrow());
+    }
+
+    @Test
+    public void frame_LargestFrameIndex_SizeIsMaxInt() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putDuration(builder, Integer.MAX_VALUE - 1, "7");
+        FrameListView view = builder.build().orElseThrow();
+
+        assertEquals(Integer.MAX_VALUE, view.size());
+        assertTrue(view.hasKey(Integer.MAX_VALUE - 1));
+        assertFalse(view.hasKey(Integer.MAX_VALUE));
+        assertFalse(view.hasKey(String.valueOf(Integer.MAX_VALUE)));
+        assertEquals(7, (int) view.subView(Integer.MAX_VALUE - 1).orElseThrow().integerValue("time").orElseThrow());
+    }
+
+    @Test
+    public void frame_DefinedOutOfOrder_EntriesKeptSorted() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 50, "abc");
+        putTile(builder, 10, "1");
+        putDuration(builder, 30, "+2");
+        putTile(builder, 20, "3");
+        putDuration(builder, 10, "4");
+        FrameListView view = builder.build().orElseThrow();
+
+        assertEquals(51, view.size());
+        assertEquals("abc", view.subView(50).orElseThrow().stringValue("index").orElseThrow());
+        assertEquals(1, (int) view.subView(10).orElseThrow().integerValue("index").orElseThrow());
+        assertEquals(4, (int) view.subView(10).orElseThrow().integerValue("time").orElseThrow());
+        assertEquals("+2", view.subView(30).orElseThrow().stringValue("time").orElseThrow());
+        assertEquals("30", view.subView(30).orElseThrow().stringValue("index").orElseThrow());
+        assertEquals(3, (int) view.subView(20).orElseThrow().integerValue("index").orElseThrow());
+        assertFalse(view.subView(20).orElseThrow().hasKey("time"));
+        assertEquals("40", view.subView(40).orElseThrow().stringValue("index").orElseThrow());
+    }
+
+    private static FrameListView makeDemoView() {
+        FrameListView.Builder builder = new FrameListView.Builder();
+        putTile(builder, 0, "0");
+        putTile(builder, 4, "05");
+        putTile(builder, 1, "3");
+        putTile(builder, 2, "2");
+        putDuration(builder, 0, "5");
+        putDuration(builder, 1, "10");
+        putDuration(builder, 3, "15");
+        putDuration(builder, 4, "+7");
+        return builder.build().orElseThrow();
+    }
+
+    private static void putTile(FrameListView.Builder builder, int frame, String tile) {
+        builder.putTile(frame, makeValueTokens(tile), 0);
+    }
+
+    private static void putDuration(FrameListView.Builder builder, int frame, String duration) {
+        builder.putDuration(frame, makeValueTokens(duration), 0);
+    }
+
+    private static PropertiesTokens makeValueTokens(String value) {
+        PropertiesTokens.Builder builder = new PropertiesTokens.Builder();
+        builder.add(value.toCharArray(), 0, 0, 0, value.length());
+        return builder.build();
+    }
+
+}
\ No newline at end of file
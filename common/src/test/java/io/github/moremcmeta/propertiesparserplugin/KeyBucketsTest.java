@@ -0,0 +1,106 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link KeyBuckets}.
+ * @author soir20
+ */
+public final class KeyBucketsTest {
+
+    @Test
+    public void forKeys_FewKeys_NoTable() {
+        assertNull(KeyBuckets.forKeys(new String[] { "a", "b", "c" }));
+    }
+
+    @Test
+    public void forKeys_ManyKeys_TableBuilt() {
+        assertNotNull(KeyBuckets.forKeys(makeKeys(20)));
+    }
+
+    @Test
+    public void indexOf_NullKey_NotFound() {
+        String[] keys = makeKeys(20);
+        assertEquals(-1, KeyBuckets.indexOf(keys, KeyBuckets.forKeys(keys), null));
+    }
+
+    @Test
+    public void indexOf_FewKeysEqualButNotSame_Found() {
+        String[] keys = makeKeys(3);
+        assertEquals(2, KeyBuckets.indexOf(keys, KeyBuckets.forKeys(keys), new String("key2")));
+    }
+
+    @Test
+    public void indexOf_ManyKeys_AllFound() {
+        String[] keys = makeKeys(100);
+        int[] buckets = KeyBuckets.forKeys(keys);
+
+        for (int index = 0; index < keys.length; index++) {
+            assertEquals(index, KeyBuckets.indexOf(keys, buckets, new String(keys[index])));
+        }
+    }
+
+    @Test
+    public void indexOf_ManyKeysMissingKey_NotFound() {
+        String[] keys = makeKeys(100);
+        assertEquals(-1, KeyBuckets.indexOf(keys, KeyBuckets.forKeys(keys), "other"));
+    }
+
+    @Test
+    public void indexOf_CollidingHashes_AllFound() {
+
+        // "Aa" and "BB" have the same hash code
+        String[] keys = new String[] { "Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB", "a", "b", "c", "d" };
+        int[] buckets = KeyBuckets.forKeys(keys);
+
+        for (int index = 0; index < keys.length; index++) {
+            assertEquals(index, KeyBuckets.indexOf(keys, buckets, keys[index]));
+        }
+    }
+
+    @Test
+    public void make_PartOfHashes_OnlyThoseAdded() {
+        int[] hashes = new int[] { "a".hashCode(), "b".hashCode(), "c".hashCode(), 0 };
+        int[] buckets = KeyBuckets.make(hashes, 3);
+
+        int filled = 0;
+        for (int bucket : buckets) {
+            if (bucket != KeyBuckets.EMPTY_BUCKET) {
+                filled++;
+            }
+        }
+
+        assertEquals(3, filled);
+    }
+
+    private static String[] makeKeys(int count) {
+        String[] keys = new String[count];
+        for (int index = 0; index < count; index++) {
+            keys[index] = "key" + index;
+        }
+
+        return keys;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link KeySymbols}.
+ * @author soir20
+ */
+public final class KeySymbolsTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void indexKey_SmallIndex_SameInstanceEachTime() {
+        assertEquals("0", KeySymbols.indexKey(0));
+        assertEquals("1023", KeySymbols.indexKey(1023));
+        assertSame(KeySymbols.indexKey(5), KeySymbols.indexKey(5));
+    }
+
+    @Test
+    public void indexKey_LargeIndex_KeyCreated() {
+        assertEquals("1024", KeySymbols.indexKey(1024));
+        assertEquals(String.valueOf(Integer.MAX_VALUE), KeySymbols.indexKey(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void intern_NullKey_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new KeySymbols().intern(null);
+    }
+
+    @Test
+    public void intern_EqualKeys_FirstInstanceReturned() {
+        KeySymbols symbols = new KeySymbols();
+        String first = new String("frametime");
+        String second = new String("frametime");
+        assertNotSame(first, second);
+
+        assertSame(first, symbols.intern(first));
+        assertSame(first, symbols.intern(second));
+    }
+
+    @Test
+    public void intern_DifferentTables_Independent() {
+        String first = new String("x");
+        String second = new String("x");
+        new KeySymbols().intern(first);
+
+        assertSame(second, new KeySymbols().intern(second));
+    }
+
+    @Test
+    public void intern_TokenKeySeenBefore_SameInstance() throws IOException, InvalidMetadataException {
+        KeySymbols symbols = new KeySymbols();
+        String interpolate = symbols.intern(new String("interpolate"));
+        PropertiesTokens tokens = tokenize("interpolate=true\nother=1\ninterpolate=false");
+
+        assertSame(interpolate, symbols.intern(tokens, 0));
+        assertSame(interpolate, symbols.intern(tokens, 2));
+        assertEquals("other", symbols.intern(tokens, 1));
+        assertSame(symbols.intern(tokens, 1), symbols.intern("other"));
+    }
+
+    @Test
+    public void intern_EmptyKey_Interned() throws IOException, InvalidMetadataException {
+        KeySymbols symbols = new KeySymbols();
+        String empty = symbols.intern(tokenize("=value"), 0);
+        assertEquals("", empty);
+        assertSame(empty, symbols.intern(new String("")));
+    }
+
+    @Test
+    public void intern_ManyKeys_AllCanonical() {
+        KeySymbols symbols = new KeySymbols();
+        List<String> keys = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            keys.add(symbols.intern("key" + index));
+        }
+
+        for (int index = 0; index < 1000; index++) {
+            assertSame(keys.get(index), symbols.intern("key" + index));
+        }
+    }
+
+    @Test
+    public void intern_ConcurrentThreads_OneInstancePerKey() throws Exception {
+        KeySymbols symbols = new KeySymbols();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(() -> {
+                    String[] interned = new String[500];
+                    for (int index = 0; index < interned.length; index++) {
+                        interned[index] = symbols.intern("key" + index);
+                    }
+
+                    return interned;
+                }));
+            }
+
+            String[] expected = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] actual = result.get();
+                for (int index = 0; index < expected.length; index++) {
+                    assertSame(expected[index], actual[index]);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PropertiesTokens tokenize(String properties) throws IOException, InvalidMetadataException {
+        return PropertiesReader.tokenize(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+}
\ No newline at end of file
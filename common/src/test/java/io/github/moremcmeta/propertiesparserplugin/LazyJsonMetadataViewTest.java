@@ -0,0 +1,335 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.JsonMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link LazyJsonMetadataView}.
+ * @author soir20
+ */
+public final class LazyJsonMetadataViewTest {
+    private static final String ANIMATION = "{ \"villager\": { \"hat\": \"full\" }, \"animation\": { \"frametime\": 2, "
+            + "\"interpolate\": true, \"width\": 16, \"height\": 32, \"frames\": [0, 1, { \"index\": 2, "
+            + "\"time\": 5 }] }, \"custom\": [1, 2, 3, \"a\\u0041\\n\"], \"name\": \"lava\", \"scale\": 1.5, "
+            + "\"count\": 12345678901, \"missing\": null }";
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void read_NullReader_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        LazyJsonMetadataView.read(null);
+    }
+
+    @Test
+    public void read_Empty_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes(""));
+    }
+
+    @Test
+    public void read_Array_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("[1, 2]"));
+    }
+
+    @Test
+    public void read_Null_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("null"));
+    }
+
+    @Test
+    public void read_UnclosedObject_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("{ \"animation\": {}"));
+    }
+
+    @Test
+    public void read_MalformedUnreadSection_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("{ \"animation\": {}, \"custom\": { \"a\": unquoted } }"));
+    }
+
+    @Test
+    public void read_InvalidEscapeInUnreadSection_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("{ \"animation\": {}, \"custom\": \"\\q\" }"));
+    }
+
+    @Test
+    public void read_TrailingCommaInUnreadSection_JsonParseException() {
+        expectedException.expect(JsonParseException.class);
+        LazyJsonMetadataView.read(bytes("{ \"animation\": {}, \"custom\": [1, 2,] }"));
+    }
+
+    @Test
+    public void read_EmptyObject_NoKeys() {
+        MetadataView view = LazyJsonMetadataView.read(bytes("{}"));
+
+        assertEquals(0, view.size());
+        assertFalse(view.keys().iterator().hasNext());
+        assertFalse(view.hasKey(0));
+    }
+
+    @Test
+    public void keys_SeveralSections_SameAsJsonView() throws IOException {
+        assertEquals(
+                ImmutableList.copyOf(jsonView(ANIMATION).keys()),
+                ImmutableList.copyOf(LazyJsonMetadataView.read(bytes(ANIMATION)).keys())
+        );
+    }
+
+    @Test
+    public void keys_Modified_UnsupportedOperationException() {
+        Iterable<String> keys = LazyJsonMetadataView.read(bytes(ANIMATION)).keys();
+
+        expectedException.expect(UnsupportedOperationException.class);
+        keys.iterator().remove();
+    }
+
+    @Test
+    public void hasKey_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasKey(-1);
+    }
+
+    @Test
+    public void stringValue_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.stringValue(-1);
+    }
+
+    @Test
+    public void subView_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.subView(-1);
+    }
+
+    @Test
+    public void subView_SameSectionTwice_ReadOnce() {
+        MetadataView view = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        MetadataView firstSection = view.subView("animation").orElseThrow();
+        MetadataView secondSection = view.subView("animation").orElseThrow();
+
+        assertEquals(ImmutableList.copyOf(firstSection.keys()), ImmutableList.copyOf(secondSection.keys()));
+        assertEquals(2, (int) secondSection.integerValue("frametime").orElseThrow());
+    }
+
+    @Test
+    public void subView_DuplicateKeys_LastEntryUsed() throws IOException {
+        String json = "{ \"animation\": { \"frametime\": 1 }, \"name\": \"a\", \"animation\": { \"frametime\": 3 } }";
+        MetadataView view = LazyJsonMetadataView.read(bytes(json));
+
+        assertEquals(2, view.size());
+        assertEquals(3, (int) view.subView("animation").orElseThrow().integerValue("frametime").orElseThrow());
+        assertEquals(
+                jsonView(json).subView("animation").orElseThrow().integerValue("frametime"),
+                view.subView("animation").orElseThrow().integerValue("frametime")
+        );
+    }
+
+    @Test
+    public void allValues_ByKey_SameAsJsonView() throws IOException {
+        MetadataView expected = jsonView(ANIMATION);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        for (String key : ImmutableList.of("villager", "animation", "custom", "name", "scale", "count", "missing",
+                "absent")) {
+            assertEquals(expected.hasKey(key), actual.hasKey(key));
+            assertEquals(expected.stringValue(key), actual.stringValue(key));
+            assertEquals(expected.booleanValue(key), actual.booleanValue(key));
+            assertEquals(expected.byteStreamValue(key).isPresent(), actual.byteStreamValue(key).isPresent());
+            assertSameStructure(expected.subView(key), actual.subView(key));
+        }
+
+        assertEquals(expected.doubleValue("scale"), actual.doubleValue("scale"));
+        assertEquals(expected.floatValue("scale"), actual.floatValue("scale"));
+        assertEquals(expected.longValue("count"), actual.longValue("count"));
+    }
+
+    @Test
+    public void allValues_ByIndex_SameAsJsonView() throws IOException {
+        MetadataView expected = jsonView(ANIMATION);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(ANIMATION));
+
+        for (int index = 0; index <= expected.size(); index++) {
+            assertEquals(expected.hasKey(index), actual.hasKey(index));
+            assertEquals(expected.stringValue(index), actual.stringValue(index));
+            assertEquals(expected.booleanValue(index), actual.booleanValue(index));
+            assertEquals(expected.byteStreamValue(index).isPresent(), actual.byteStreamValue(index).isPresent());
+            assertSameStructure(expected.subView(index), actual.subView(index));
+        }
+    }
+
+    @Test
+    public void integerValue_NestedFrames_SameAsJsonView() throws IOException {
+        MetadataView expected = jsonView(ANIMATION).subView("animation").orElseThrow();
+        MetadataView actual = LazyJsonMetadataView.read(bytes(ANIMATION)).subView("animation")
+                .orElseThrow();
+
+        assertEquals(expected.integerValue("width"), actual.integerValue("width"));
+        assertEquals(expected.integerValue("height"), actual.integerValue("height"));
+        assertEquals(expected.booleanValue("interpolate"), actual.booleanValue("interpolate"));
+    }
+
+    @Test
+    public void section_ReadByIndexThenKey_SameView() {
+        MetadataView view = LazyJsonMetadataView.read(bytes("{ \"name\": \"lava\" }"));
+
+        assertEquals(Optional.of("lava"), view.stringValue(0));
+        assertEquals(Optional.of("lava"), view.stringValue("name"));
+        assertTrue(view.subView(0).isEmpty());
+        assertTrue(view.subView("name").isEmpty());
+    }
+
+    @Test
+    public void stringValue_DuplicateKeys_LastEntryUsed() {
+        MetadataView view = LazyJsonMetadataView.read(bytes("{ \"name\": \"lava\", \"name\": \"water\" }"));
+
+        assertEquals(1, view.size());
+        assertEquals(Optional.of("water"), view.stringValue("name"));
+    }
+
+    @Test
+    public void stringValue_MultibyteCharactersAndEscapedQuotes_SameAsJsonView() throws IOException {
+        String json = "{ \"n\u00e4me\\\"\": \"l\u00e4va \\\" \u6c34\", \"count\": 12, \"\u6c34\": [\"}\", \"]\"] }";
+        MetadataView expected = jsonView(json);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(json));
+
+        assertEquals(ImmutableList.copyOf(expected.keys()), ImmutableList.copyOf(actual.keys()));
+        for (String key : expected.keys()) {
+            assertEquals(expected.stringValue(key), actual.stringValue(key));
+            assertSameStructure(expected.subView(key), actual.subView(key));
+        }
+    }
+
+    @Test
+    public void subView_ReadFromManyThreads_SectionReadOnEveryThread() throws InterruptedException {
+        MetadataView view = LazyJsonMetadataView.read(bytes(ANIMATION));
+        Queue<Optional<Integer>> frameTimes = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int index = 0; index < threads.length; index++) {
+            threads[index] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException err) {
+                    return;
+                }
+
+                frameTimes.add(view.subView("animation").flatMap((section) -> section.integerValue("frametime")));
+            });
+            threads[index].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(Collections.nCopies(threads.length, Optional.of(2)), ImmutableList.copyOf(frameTimes));
+    }
+
+    @Test
+    public void stringValue_EscapedCharacters_SameAsJsonView() throws IOException {
+        String json = "{ \"name\": \"a\\\"b\\\\c\\u00e9\\n\", \"section\": { \"quote\\\"key\": \"\\t\" } }";
+        MetadataView expected = jsonView(json);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(json));
+
+        assertEquals(expected.stringValue("name"), actual.stringValue("name"));
+        assertSameStructure(expected.subView("section"), actual.subView("section"));
+    }
+
+    @Test
+    public void longValue_NumbersBeyondDouble_SameAsJsonView() throws IOException {
+        String json = "{ \"count\": 9007199254740993, \"scale\": 1.00000000000000000001, \"exponent\": 1e2 }";
+        MetadataView expected = jsonView(json);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(json));
+
+        assertEquals(expected.longValue("count"), actual.longValue("count"));
+        assertEquals(expected.stringValue("scale"), actual.stringValue("scale"));
+        assertEquals(expected.doubleValue("exponent"), actual.doubleValue("exponent"));
+    }
+
+    @Test
+    public void allValues_NullsAndNestedArrays_SameAsJsonView() throws IOException {
+        String json = "{ \"missing\": null, \"frames\": [[1, null], { \"index\": [] }, true] }";
+        MetadataView expected = jsonView(json);
+        MetadataView actual = LazyJsonMetadataView.read(bytes(json));
+
+        assertEquals(expected.hasKey("missing"), actual.hasKey("missing"));
+        assertEquals(expected.stringValue("missing"), actual.stringValue("missing"));
+        assertSameStructure(expected.subView("frames"), actual.subView("frames"));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static MetadataView jsonView(String json) throws IOException {
+        JsonObject object = new Gson().getAdapter(JsonObject.class).fromJson(new StringReader(json));
+        return new JsonMetadataView(object, String::compareTo);
+    }
+
+    private static void assertSameStructure(Optional<MetadataView> expected, Optional<MetadataView> actual) {
+        assertEquals(expected.isPresent(), actual.isPresent());
+        if (expected.isEmpty()) {
+            return;
+        }
+
+        assertEquals(ImmutableList.copyOf(expected.get().keys()), ImmutableList.copyOf(actual.get().keys()));
+        for (String key : expected.get().keys()) {
+            assertEquals(expected.get().stringValue(key), actual.get().stringValue(key));
+            assertSameStructure(expected.get().subView(key), actual.get().subView(key));
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ListMetadataView}.
+ * @author soir20
+ */
+public final class ListMetadataViewTest {
+    private static final InputStream MOCK_STREAM = new ByteArrayInputStream("stream".getBytes());
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullList_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ListMetadataView((List<PropertiesMetadataView.Value>) null);
+    }
+
+    @Test
+    public void construct_NullValueInList_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ListMetadataView(Arrays.asList(new PropertiesMetadataView.Value("0"), null));
+    }
+
+    @Test
+    public void construct_NullSingleValue_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ListMetadataView((PropertiesMetadataView.Value) null);
+    }
+
+    @Test
+    public void construct_NullArray_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ListMetadataView((PropertiesMetadataView.Value[]) null);
+    }
+
+    @Test
+    public void construct_NullValueInArray_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ListMetadataView(new PropertiesMetadataView.Value[] { new PropertiesMetadataView.Value("0"), null });
+    }
+
+    @Test
+    public void construct_Array_ValuesInOrder() {
+        ListMetadataView view = new ListMetadataView(new PropertiesMetadataView.Value[] {
+                new PropertiesMetadataView.Value("5"),
+                new PropertiesMetadataView.Value("6")
+        });
+
+        assertEquals(2, view.size());
+        assertEquals(5, (int) view.integerValue(0).orElseThrow());
+        assertEquals(6, (int) view.integerValue("1").orElseThrow());
+    }
+
+    @Test
+    public void construct_ListChangedLater_ViewUnchanged() {
+        List<PropertiesMetadataView.Value> values = new ArrayList<>();
+        values.add(new PropertiesMetadataView.Value("0"));
+        ListMetadataView view = new ListMetadataView(values);
+
+        values.add(new PropertiesMetadataView.Value("1"));
+        assertEquals(1, view.size());
+    }
+
+    @Test
+    public void size_Empty_0() {
+        assertEquals(0, new ListMetadataView(ImmutableList.of()).size());
+    }
+
+    @Test
+    public void keys_ManyValues_IndicesInOrder() {
+        List<String> expected = new ArrayList<>();
+        List<PropertiesMetadataView.Value> values = new ArrayList<>();
+        for (int index = 0; index < 12; index++) {
+            expected.add(String.valueOf(index));
+            values.add(new PropertiesMetadataView.Value("value"));
+        }
+
+        assertEquals(expected, ImmutableList.copyOf(new ListMetadataView(values).keys()));
+    }
+
+    @Test
+    public void hasKeyString_IndexKeys_True() {
+        assertTrue(makeDemoView().hasKey("0"));
+        assertTrue(makeDemoView().hasKey("3"));
+    }
+
+    @Test
+    public void hasKeyString_NotIndexKeys_False() {
+        assertFalse(makeDemoView().hasKey("4"));
+        assertFalse(makeDemoView().hasKey("01"));
+        assertFalse(makeDemoView().hasKey("+1"));
+        assertFalse(makeDemoView().hasKey("-1"));
+        assertFalse(makeDemoView().hasKey("99999999999"));
+        assertFalse(makeDemoView().hasKey(""));
+        assertFalse(makeDemoView().hasKey(null));
+    }
+
+    @Test
+    public void hasKeyIndex_NegativeIndex_NegativeKeyIndexException() {
+        expectedException.expect(NegativeKeyIndexException.class);
+        makeDemoView().hasKey(-1);
+    }
+
+    @Test
+    public void hasKeyIndex_IndexTooLarge_False() {
+        assertFalse(makeDemoView().hasKey(4));
+    }
+
+    @Test
+    public void stringValue_StringVal_Found() {
+        assertEquals("10", makeDemoView().stringValue("0").orElseThrow());
+        assertEquals("true", makeDemoView().stringValue(1).orElseThrow());
+    }
+
+    @Test
+    public void stringValue_NotStringVal_Empty() {
+        assertFalse(makeDemoView().stringValue("2").isPresent());
+        assertFalse(makeDemoView().stringValue(3).isPresent());
+    }
+
+    @Test
+    public void numericValues_StringVal_Converted() {
+        assertEquals(10, (int) makeDemoView().integerValue("0").orElseThrow());
+        assertEquals(10L, (long) makeDemoView().longValue(0).orElseThrow());
+        assertEquals(10f, makeDemoView().floatValue("0").orElseThrow(), 0f);
+        assertEquals(10d, makeDemoView().doubleValue(0).orElseThrow(), 0d);
+        assertEquals(10, makeDemoView().integerValueOr(0, -1));
+        assertEquals(-1, makeDemoView().integerValueOr("1", -1));
+    }
+
+    @Test
+    public void booleanValue_StringVal_Converted() {
+        assertTrue(makeDemoView().booleanValue("1").orElseThrow());
+        assertFalse(makeDemoView().booleanValue(0).orElseThrow());
+        assertTrue(makeDemoView().booleanValueOr(3, true));
+    }
+
+    @Test
+    public void byteStreamValue_StreamVal_Found() {
+        assertSame(MOCK_STREAM, makeDemoView().byteStreamValue("3").orElseThrow());
+        assertFalse(makeDemoView().byteStreamValue(0).isPresent());
+    }
+
+    @Test
+    public void subView_SubViewVal_Found() {
+        MetadataView subView = makeDemoView().subView("2").orElseThrow();
+        assertEquals("world", subView.stringValue("hello").orElseThrow());
+        assertFalse(makeDemoView().subView(0).isPresent());
+    }
+
+    @Test
+    public void subView_NegativeIndex_NegativeKeyIndexException() {
+        expectedException.expect(NegativeKeyIndexException.class);
+        makeDemoView().subView(-1);
+    }
+
+    @Test
+    public void subView_IndexTooLarge_Empty() {
+        assertFalse(makeDemoView().subView(4).isPresent());
+        assertFalse(makeDemoView().subView("4").isPresent());
+    }
+
+    private static ListMetadataView makeDemoView() {
+        return new ListMetadataView(ImmutableList.of(
+                new PropertiesMetadataView.Value("10"),
+                new PropertiesMetadataView.Value("true"),
+                new PropertiesMetadataView.Value(new PropertiesMetadataView(ImmutableMap.of(
+                        "hello", new PropertiesMetadataView.Value("world")
+                ))),
+                new PropertiesMetadataView.Value(MOCK_STREAM)
+        ));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link MetadataIndex}.
+ * @author soir20
+ */
+public final class MetadataIndexTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullLocations_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new MetadataIndex(null);
+    }
+
+    @Test
+    public void contains_DuplicateLocations_EachLocationFound() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of(
+                new ResourceLocation("textures/block/lava.png.mcmeta"),
+                new ResourceLocation("textures/block/lava.png.mcmeta"),
+                new ResourceLocation("moremcmeta", "textures/block/lava.png.mcmeta")
+        ));
+
+        assertTrue(index.contains(new ResourceLocation("textures/block/lava.png.mcmeta")));
+        assertTrue(index.contains(new ResourceLocation("moremcmeta", "textures/block/lava.png.mcmeta")));
+        assertFalse(index.contains(new ResourceLocation("textures/block/water.png.mcmeta")));
+        assertEquals(1, index.skipped());
+        assertEquals(2, index.searched());
+    }
+
+    @Test
+    public void contains_NullLocation_NullPointerException() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of());
+
+        expectedException.expect(NullPointerException.class);
+        index.contains(null);
+    }
+
+    @Test
+    public void contains_NoLookups_NoneSkippedOrSearched() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of(new ResourceLocation("textures/block/lava.png.mcmeta")));
+
+        assertEquals(0, index.skipped());
+        assertEquals(0, index.searched());
+    }
+
+    @Test
+    public void contains_FileExists_TrueAndSearchCounted() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of(new ResourceLocation("textures/block/lava.png.mcmeta")));
+
+        assertTrue(index.contains(new ResourceLocation("textures/block/lava.png.mcmeta")));
+        assertEquals(0, index.skipped());
+        assertEquals(1, index.searched());
+    }
+
+    @Test
+    public void contains_FileInOtherNamespace_FalseAndSkipCounted() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of(new ResourceLocation("textures/block/lava.png.mcmeta")));
+
+        assertFalse(index.contains(new ResourceLocation("moremcmeta", "textures/block/lava.png.mcmeta")));
+        assertEquals(1, index.skipped());
+        assertEquals(0, index.searched());
+    }
+
+    @Test
+    public void contains_SeveralLookups_AllCounted() {
+        MetadataIndex index = new MetadataIndex(ImmutableList.of(new ResourceLocation("textures/block/lava.png.mcmeta")));
+
+        index.contains(new ResourceLocation("textures/block/lava.png.mcmeta"));
+        index.contains(new ResourceLocation("textures/block/water.png.mcmeta"));
+        index.contains(new ResourceLocation("textures/block/dirt.png.mcmeta"));
+
+        assertEquals(2, index.skipped());
+        assertEquals(1, index.searched());
+    }
+
+}
\ No newline at end of file
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -35,7 +36,8 @@ import java.util.stream.Collectors;
  */
 public final class MockResourceRepository implements ResourceRepository {
     private final List<Set<ResourceLocation>> PACKS;
-    private final InputStream DUMMY_STREAM;
+    private final List<Pack> MOCK_PACKS;
+    private final Supplier<InputStream> DUMMY_STREAMS;
     private final boolean BAD_PACKS;
 
     public MockResourceRepository(List<Set<ResourceLocation>> packs) {
@@ -46,22 +48,31 @@ public final class MockResourceRepository implements ResourceRepository {
         this(packs, false, dummyStream);
     }
 
+    public MockResourceRepository(List<Set<ResourceLocation>> packs, Supplier<InputStream> dummyStreams) {
+        this(packs, false, dummyStreams);
+    }
+
     public MockResourceRepository(List<Set<ResourceLocation>> packs, boolean badPacks) {
         this(packs, badPacks, new ByteArrayInputStream("dummy".getBytes()));
     }
 
     @Override
     public Optional<Pack> highestPackWith(ResourceLocation location) {
-        return PACKS.stream().filter((pack) -> pack.contains(location))
-                .findFirst()
-                .map(this::makeMockPack);
+        for (int index = 0; index < PACKS.size(); index++) {
+            if (PACKS.get(index).contains(location)) {
+                return Optional.of(MOCK_PACKS.get(index));
+            }
+        }
+
+        return Optional.empty();
     }
 
     @Override
     public Optional<Pack> highestPackWith(ResourceLocation location, ResourceLocation floor) {
-        for (Set<ResourceLocation> pack : PACKS) {
+        for (int index = 0; index < PACKS.size(); index++) {
+            Set<ResourceLocation> pack = PACKS.get(index);
             if (pack.contains(location)) {
-                return Optional.of(makeMockPack(pack));
+                return Optional.of(MOCK_PACKS.get(index));
             }
 
             if (pack.contains(floor)) {
@@ -81,9 +92,15 @@ public final class MockResourceRepository implements ResourceRepository {
     }
 
     private MockResourceRepository(List<Set<ResourceLocation>> packs, boolean badPacks, InputStream dummyStream) {
+        this(packs, badPacks, () -> dummyStream);
+    }
+
+    private MockResourceRepository(List<Set<ResourceLocation>> packs, boolean badPacks,
+                                   Supplier<InputStream> dummyStreams) {
         PACKS = packs;
-        DUMMY_STREAM = dummyStream;
+        DUMMY_STREAMS = dummyStreams;
         BAD_PACKS = badPacks;
+        MOCK_PACKS = packs.stream().map(this::makeMockPack).collect(Collectors.toList());
     }
 
     private Pack makeMockPack(Set<ResourceLocation> pack) {
@@ -91,7 +108,7 @@ public final class MockResourceRepository implements ResourceRepository {
             @Override
             public Optional<InputStream> resource(ResourceLocation location) {
                 if (pack.contains(location) && !BAD_PACKS) {
-                    return Optional.of(DUMMY_STREAM);
+                    return Optional.of(DUMMY_STREAMS.get());
                 }
 
                 return Optional.empty();
@@ -32,9 +32,15 @@ import org.junit.rules.ExpectedException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import static org.junit.Assert.*;
 
@@ -157,6 +163,33 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void combine_OnlyAnimationView_PartsCombined() throws InvalidMetadataException {
+        MetadataView view = PARSER.combine(new ResourceLocation("dummy.png"), ImmutableMap.of(
+                new ResourceLocation("z1.png.properties"), DUMMY_ANIMATION_VIEW_1
+        ));
+
+        assertEquals(ImmutableList.of("animation"), ImmutableList.copyOf(view.keys()));
+        assertEquals(1, view.subView("animation").orElseThrow().subView("parts").orElseThrow().size());
+        assertEquals(
+                0,
+                (int) view.subView("animation").orElseThrow()
+                        .subView("parts").orElseThrow()
+                        .subView(0).orElseThrow()
+                        .integerValue("width").orElseThrow()
+        );
+    }
+
+    @Test
+    public void combine_OnlyViewWithoutAnimation_SameSections() throws InvalidMetadataException {
+        MetadataView view = PARSER.combine(new ResourceLocation("dummy.png"), ImmutableMap.of(
+                new ResourceLocation("dummy.png.properties"), DUMMY_EMISSIVE_VIEW
+        ));
+
+        assertEquals(ImmutableList.of("overlay"), ImmutableList.copyOf(view.keys()));
+        assertEquals("dummy_e.png", view.subView("overlay").orElseThrow().stringValue("texture").orElseThrow());
+    }
+
     @Test
     public void combine_MultipleAnimationsNoConflict_CombinedByMetadataLocation() throws InvalidMetadataException {
         MetadataView view = PARSER.combine(new ResourceLocation("dummy.png"), ImmutableMap.of(
@@ -241,6 +274,360 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void combine_PartsWithNonViewValues_OnlyViewsCombined() throws InvalidMetadataException {
+        PropertiesMetadataView mixedPartsView = new PropertiesMetadataView(ImmutableMap.of(
+                "animation", new PropertiesMetadataView.Value(new PropertiesMetadataView(ImmutableMap.of(
+                        "parts", new PropertiesMetadataView.Value(new PropertiesMetadataView(ImmutableMap.of(
+                                "0", new PropertiesMetadataView.Value("not a view"),
+                                "1", new PropertiesMetadataView.Value(new PropertiesMetadataView(ImmutableMap.of(
+                                        "width", new PropertiesMetadataView.Value("7")
+                                )))
+                        )))
+                )))
+        ));
+
+        MetadataView view = PARSER.combine(new ResourceLocation("dummy.png"), ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), mixedPartsView,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_1
+        ));
+
+        MetadataView parts = view.subView("animation").orElseThrow().subView("parts").orElseThrow();
+        assertEquals(2, parts.size());
+        assertEquals(7, (int) parts.subView(0).orElseThrow().integerValue("width").orElseThrow());
+        assertEquals(0, (int) parts.subView(1).orElseThrow().integerValue("width").orElseThrow());
+    }
+
+    @Test
+    public void combineIncremental_NoPreviousResult_SameAsCombine() throws InvalidMetadataException {
+        Map<ResourceLocation, MetadataView> metadata = ImmutableMap.of(
+                new ResourceLocation("dummy.png.properties"), DUMMY_EMISSIVE_VIEW,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2,
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1
+        );
+
+        assertSameCombination(
+                PARSER.combine(new ResourceLocation("dummy.png"), metadata),
+                PARSER.combine(new ResourceLocation("dummy.png"), null, metadata, ImmutableSet.of())
+        );
+    }
+
+    @Test
+    public void combineIncremental_NullMetadata_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        PARSER.combine(new ResourceLocation("dummy.png"), null, null, ImmutableSet.of());
+    }
+
+    @Test
+    public void combineIncremental_NullChangedLocations_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        PARSER.combine(new ResourceLocation("dummy.png"), null, ImmutableMap.of(), null);
+    }
+
+    @Test
+    public void combineIncremental_OneViewChanged_UnchangedPartsReused() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2,
+                new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+        ), ImmutableSet.of());
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_3,
+                new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+        );
+        MetadataView updated = parser.combine(
+                textureLocation,
+                previous,
+                changedMetadata,
+                ImmutableSet.of(new ResourceLocation("b.png.properties"))
+        );
+
+        assertSameCombination(parser.combine(textureLocation, changedMetadata), updated);
+        assertSame(
+                previous.subView("animation").orElseThrow().subView("parts").orElseThrow().subView(0).orElseThrow(),
+                updated.subView("animation").orElseThrow().subView("parts").orElseThrow().subView(0).orElseThrow()
+        );
+        assertEquals(2, (int) updated.subView("animation").orElseThrow().subView("parts").orElseThrow()
+                .subView(1).orElseThrow().integerValue("width").orElseThrow());
+    }
+
+    @Test
+    public void combineIncremental_UnchangedLocationWithNewView_CurrentViewUsed() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+        ), ImmutableSet.of());
+
+        PropertiesMetadataView otherSection = new PropertiesMetadataView(ImmutableMap.of(
+                "abcd", new PropertiesMetadataView.Value("ijkl")
+        ));
+        MetadataView updated = parser.combine(textureLocation, previous, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("other.png.properties"), new PropertiesMetadataView(ImmutableMap.of(
+                        "other", new PropertiesMetadataView.Value(otherSection)
+                ))
+        ), ImmutableSet.of(new ResourceLocation("a.png.properties")));
+
+        assertSame(otherSection, updated.subView("other").orElseThrow());
+    }
+
+    @Test
+    public void combineIncremental_ViewsAddedAndRemoved_SameAsCombine() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2,
+                new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+        ), ImmutableSet.of());
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("c.png.properties"), DUMMY_ANIMATION_VIEW_3,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2,
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("dummy.png.properties"), DUMMY_EMISSIVE_VIEW
+        );
+        MetadataView updated = parser.combine(textureLocation, previous, changedMetadata, ImmutableSet.of(
+                new ResourceLocation("a.png.properties"),
+                new ResourceLocation("c.png.properties"),
+                new ResourceLocation("dummy.png.properties"),
+                new ResourceLocation("other.png.properties")
+        ));
+
+        assertSameCombination(parser.combine(textureLocation, changedMetadata), updated);
+        assertFalse(updated.hasKey("other"));
+    }
+
+    @Test
+    public void combineIncremental_SectionMovedBetweenViews_NoConflict() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_OTHER_VIEW,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2
+        ), ImmutableSet.of());
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("b.png.properties"), DUMMY_OTHER_VIEW
+        );
+        MetadataView updated = parser.combine(textureLocation, previous, changedMetadata, ImmutableSet.of(
+                new ResourceLocation("a.png.properties"),
+                new ResourceLocation("b.png.properties")
+        ));
+
+        assertSameCombination(parser.combine(textureLocation, changedMetadata), updated);
+    }
+
+    @Test
+    public void combineIncremental_ChangeAddsConflict_InvalidMetadataException() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_OTHER_VIEW,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2
+        ), ImmutableSet.of());
+
+        expectedException.expect(InvalidMetadataException.class);
+        parser.combine(textureLocation, previous, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_OTHER_VIEW,
+                new ResourceLocation("b.png.properties"), DUMMY_OTHER_VIEW
+        ), ImmutableSet.of(new ResourceLocation("b.png.properties")));
+    }
+
+    @Test
+    public void combineIncremental_UnreportedChange_SameAsCombine() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1
+        ), ImmutableSet.of());
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2
+        );
+        MetadataView updated = parser.combine(textureLocation, previous, changedMetadata, ImmutableSet.of());
+
+        assertSameCombination(parser.combine(textureLocation, changedMetadata), updated);
+    }
+
+    @Test
+    public void combineIncremental_UnreportedRemoval_SameAsCombine() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = parser.combine(textureLocation, null, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2
+        ), ImmutableSet.of());
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1
+        );
+        MetadataView updated = parser.combine(textureLocation, previous, changedMetadata, ImmutableSet.of());
+
+        assertSameCombination(parser.combine(textureLocation, changedMetadata), updated);
+    }
+
+    @Test
+    public void combineIncremental_ResultFromOtherCombine_CombinedFromScratch() throws InvalidMetadataException {
+        ResourceLocation textureLocation = new ResourceLocation("dummy.png");
+        MetadataView previous = PARSER.combine(textureLocation, ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1
+        ));
+
+        Map<ResourceLocation, MetadataView> changedMetadata = ImmutableMap.of(
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_2
+        );
+        MetadataView updated = PARSER.combine(textureLocation, previous, changedMetadata, ImmutableSet.of());
+
+        assertSameCombination(PARSER.combine(textureLocation, changedMetadata), updated);
+    }
+
+    @Test
+    public void combineAll_NullMetadata_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        PARSER.combineAll(null);
+    }
+
+    @Test
+    public void combineAll_ZeroParallelism_IllegalArgumentException() {
+        expectedException.expect(IllegalArgumentException.class);
+        PARSER.combineAll(ImmutableMap.of(), 0);
+    }
+
+    @Test
+    public void combineAll_NoTextures_Empty() {
+        BatchCombineResult result = PARSER.combineAll(ImmutableMap.of());
+        assertTrue(result.views().isEmpty());
+        assertTrue(result.errors().isEmpty());
+    }
+
+    @Test
+    public void combineAll_SomeTexturesConflict_AllConflictsReported() throws InvalidMetadataException {
+        Map<ResourceLocation, Map<ResourceLocation, MetadataView>> metadataByTexture = ImmutableMap.of(
+                new ResourceLocation("c.png"), ImmutableMap.of(
+                        new ResourceLocation("c1.png.properties"), DUMMY_OTHER_VIEW,
+                        new ResourceLocation("c2.png.properties"), DUMMY_OTHER_VIEW
+                ),
+                new ResourceLocation("b.png"), ImmutableMap.of(
+                        new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                        new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+                ),
+                new ResourceLocation("a.png"), ImmutableMap.of(
+                        new ResourceLocation("a1.png.properties"), DUMMY_EMISSIVE_VIEW,
+                        new ResourceLocation("a2.png.properties"), DUMMY_EMISSIVE_VIEW
+                ),
+                new ResourceLocation("d.png"), ImmutableMap.of(
+                        new ResourceLocation("d.png.properties"), DUMMY_EMISSIVE_VIEW
+                )
+        );
+
+        BatchCombineResult result = PARSER.combineAll(metadataByTexture);
+
+        assertEquals(
+                ImmutableList.of(new ResourceLocation("a.png"), new ResourceLocation("c.png")),
+                ImmutableList.copyOf(result.errors().keySet())
+        );
+        assertEquals(
+                ImmutableList.of(new ResourceLocation("b.png"), new ResourceLocation("d.png")),
+                ImmutableList.copyOf(result.views().keySet())
+        );
+        assertSameCombination(
+                PARSER.combine(new ResourceLocation("b.png"), metadataByTexture.get(new ResourceLocation("b.png"))),
+                result.views().get(new ResourceLocation("b.png"))
+        );
+    }
+
+    @Test
+    public void combineAll_ManyTexturesInParallel_SameAsSequential() throws InvalidMetadataException {
+        ImmutableMap.Builder<ResourceLocation, Map<ResourceLocation, MetadataView>> builder = ImmutableMap.builder();
+        for (int index = 999; index >= 0; index--) {
+            ImmutableMap.Builder<ResourceLocation, MetadataView> metadata = ImmutableMap.builder();
+            metadata.put(new ResourceLocation("anim" + index + ".png.properties"), DUMMY_ANIMATION_VIEW_1);
+            metadata.put(new ResourceLocation("other" + index + ".png.properties"), DUMMY_ANIMATION_VIEW_2);
+            if (index % 3 == 0) {
+                metadata.put(new ResourceLocation("emissive" + index + ".png.properties"), DUMMY_EMISSIVE_VIEW);
+            }
+
+            if (index % 7 == 0) {
+                metadata.put(new ResourceLocation("conflict" + index + ".png.properties"), DUMMY_EMISSIVE_VIEW);
+            }
+
+            builder.put(new ResourceLocation("texture" + index + ".png"), metadata.build());
+        }
+
+        Map<ResourceLocation, Map<ResourceLocation, MetadataView>> metadataByTexture = builder.build();
+        BatchCombineResult parallel = PARSER.combineAll(metadataByTexture, 4);
+        BatchCombineResult sequential = PARSER.combineAll(metadataByTexture, 1);
+
+        assertEquals(ImmutableList.copyOf(sequential.errors().keySet()), ImmutableList.copyOf(parallel.errors().keySet()));
+        assertEquals(ImmutableList.copyOf(sequential.views().keySet()), ImmutableList.copyOf(parallel.views().keySet()));
+        assertEquals(1000, parallel.views().size() + parallel.errors().size());
+        assertEquals(48, parallel.errors().size());
+
+        for (Map.Entry<ResourceLocation, MetadataView> entry : parallel.views().entrySet()) {
+            assertSameCombination(
+                    PARSER.combine(entry.getKey(), metadataByTexture.get(entry.getKey())),
+                    entry.getValue()
+            );
+        }
+    }
+
+    @Test
+    public void combine_FlattenedMode_SameAsLayered() throws InvalidMetadataException {
+        PropertiesMetadataParser flatParser = new PropertiesMetadataParser(
+                PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES,
+                PropertiesMetadataParser.CombineMode.FLATTENED
+        );
+        Map<ResourceLocation, MetadataView> metadata = ImmutableMap.of(
+                new ResourceLocation("dummy.png.properties"), DUMMY_EMISSIVE_VIEW,
+                new ResourceLocation("b.png.properties"), DUMMY_ANIMATION_VIEW_2,
+                new ResourceLocation("a.png.properties"), DUMMY_ANIMATION_VIEW_1,
+                new ResourceLocation("other.png.properties"), DUMMY_OTHER_VIEW
+        );
+
+        MetadataView layered = PARSER.combine(new ResourceLocation("dummy.png"), metadata);
+        MetadataView flattened = flatParser.combine(new ResourceLocation("dummy.png"), metadata);
+
+        assertEquals(ImmutableList.copyOf(layered.keys()), ImmutableList.copyOf(flattened.keys()));
+        MetadataView layeredParts = layered.subView("animation").orElseThrow().subView("parts").orElseThrow();
+        MetadataView parts = flattened.subView("animation").orElseThrow().subView("parts").orElseThrow();
+        assertEquals(2, parts.size());
+        for (int index = 0; index < 2; index++) {
+            assertEquals(
+                    layeredParts.subView(index).orElseThrow().integerValue("width"),
+                    parts.subView(index).orElseThrow().integerValue("width")
+            );
+        }
+        assertEquals("efgh", flattened.subView("other").orElseThrow().stringValue("abcd").orElseThrow());
+        assertTrue(flattened.subView("overlay").orElseThrow().booleanValue("emissive").orElseThrow());
+    }
+
+    @Test
+    public void construct_NullCombineMode_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataParser(PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES, null);
+    }
+
+    @Test
+    public void construct_ZeroParallelism_IllegalArgumentException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new PropertiesMetadataParser(PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES,
+                PropertiesMetadataParser.CombineMode.LAYERED, 0);
+    }
+
+    @Test
+    public void construct_ZeroParallelismWithoutCombineMode_IllegalArgumentException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new PropertiesMetadataParser(PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES, 0);
+    }
+
     @Test
     public void combine_ConflictingSections_InvalidMetadataException() throws InvalidMetadataException {
         expectedException.expect(InvalidMetadataException.class);
@@ -300,6 +687,48 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void parse_UnknownFile_StreamNotRead() throws InvalidMetadataException {
+        InputStream unreadableStream = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("Stream for unsupported file should not be read");
+            }
+        };
+
+        expectedException.expect(InvalidMetadataException.class);
+        PARSER.parse(
+                new ResourceLocation("optifine/cit/sword.properties"),
+                unreadableStream,
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("optifine/cit/sword.properties")
+                        )
+                ))
+        );
+    }
+
+    @Test
+    public void parse_EmissiveConfigInOtherNamespace_StreamNotRead() throws InvalidMetadataException {
+        InputStream unreadableStream = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("Stream for unsupported file should not be read");
+            }
+        };
+
+        expectedException.expect(InvalidMetadataException.class);
+        PARSER.parse(
+                new ResourceLocation("moremcmeta", "optifine/emissive.properties"),
+                unreadableStream,
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("moremcmeta", "optifine/emissive.properties")
+                        )
+                ))
+        );
+    }
+
     @Test
     public void parse_EmptyEmissiveConfig_InvalidMetadataException() throws InvalidMetadataException {
         expectedException.expect(InvalidMetadataException.class);
@@ -446,6 +875,221 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void parse_SeveralEmissiveFilesSameReload_ResourcesListedOnce() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        MockResourceRepository delegate = new MockResourceRepository(ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("textures/entity/witch_f.png"),
+                        new ResourceLocation("textures/entity/bee_e.png")
+                )
+        ));
+        int[] listCount = new int[1];
+        ResourceRepository repository = new ResourceRepository() {
+            @Override
+            public Optional<Pack> highestPackWith(ResourceLocation location) {
+                return delegate.highestPackWith(location);
+            }
+
+            @Override
+            public Optional<Pack> highestPackWith(ResourceLocation location, ResourceLocation floor) {
+                return delegate.highestPackWith(location, floor);
+            }
+
+            @Override
+            public Set<? extends ResourceLocation> list(Predicate<String> fileFilter) {
+                listCount[0]++;
+                return delegate.list(fileFilter);
+            }
+        };
+
+        Map<ResourceLocation, MetadataView> firstViews = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+        assertEquals(1, listCount[0]);
+
+        Map<ResourceLocation, MetadataView> secondViews = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_f"),
+                repository
+        );
+        Map<ResourceLocation, MetadataView> thirdViews = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(1, listCount[0]);
+        assertEquals(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/entity/bee.png")
+                ),
+                firstViews.keySet()
+        );
+        assertEquals(ImmutableSet.of(new ResourceLocation("textures/entity/witch.png")), secondViews.keySet());
+        assertEquals(firstViews.keySet(), thirdViews.keySet());
+    }
+
+    @Test
+    public void parse_EmissiveTexturesWithoutDefaultMetadata_PacksNotSearched() throws InvalidMetadataException {
+        MockResourceRepository delegate = new MockResourceRepository(ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("textures/optifine/eyes.png.mcmeta"),
+                        new ResourceLocation("textures/entity/bee.png"),
+                        new ResourceLocation("textures/entity/bee_e.png")
+                )
+        ), new ByteArrayInputStream("{ \"animation\": {} }".getBytes()));
+        List<ResourceLocation> searchedLocations = new ArrayList<>();
+        ResourceRepository repository = new ResourceRepository() {
+            @Override
+            public Optional<Pack> highestPackWith(ResourceLocation location) {
+                searchedLocations.add(location);
+                return delegate.highestPackWith(location);
+            }
+
+            @Override
+            public Optional<Pack> highestPackWith(ResourceLocation location, ResourceLocation floor) {
+                searchedLocations.add(location);
+                return delegate.highestPackWith(location, floor);
+            }
+
+            @Override
+            public Set<? extends ResourceLocation> list(Predicate<String> fileFilter) {
+                return delegate.list(fileFilter);
+            }
+        };
+
+        Map<ResourceLocation, MetadataView> views = new PropertiesMetadataParser().parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(ImmutableList.of(new ResourceLocation("textures/optifine/eyes.png.mcmeta")), searchedLocations);
+        assertTrue(views.get(new ResourceLocation("textures/optifine/eyes.png")).hasKey("animation"));
+        assertFalse(views.get(new ResourceLocation("textures/entity/bee.png")).hasKey("animation"));
+    }
+
+    @Test
+    public void parse_SameDefaultMetadataSameReload_ReadOnce() throws InvalidMetadataException {
+        int[] streamCount = new int[1];
+        MockResourceRepository repository = new MockResourceRepository(ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("textures/optifine/eyes.png.mcmeta")
+                )
+        ), () -> {
+            streamCount[0]++;
+            return new ByteArrayInputStream("{ \"animation\": {} }".getBytes());
+        });
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+
+        Map<ResourceLocation, MetadataView> firstViews = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+        Map<ResourceLocation, MetadataView> secondViews = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(1, streamCount[0]);
+        assertTrue(firstViews.get(new ResourceLocation("textures/optifine/eyes.png")).hasKey("animation"));
+        assertTrue(secondViews.get(new ResourceLocation("textures/optifine/eyes.png")).hasKey("animation"));
+    }
+
+    @Test
+    public void parse_OverlayIsAlsoTextureOfOverlay_MetadataReadOnce() throws InvalidMetadataException {
+        int[] streamCount = new int[1];
+        MockResourceRepository repository = new MockResourceRepository(ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png.mcmeta"),
+                        new ResourceLocation("textures/optifine/eyes_e_e.png")
+                )
+        ), () -> {
+            streamCount[0]++;
+            return new ByteArrayInputStream("{ \"animation\": {} }".getBytes());
+        });
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+
+        Map<ResourceLocation, MetadataView> views = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(1, streamCount[0]);
+        assertTrue(views.get(new ResourceLocation("textures/optifine/eyes_e.png")).hasKey("animation"));
+        assertTrue(views.get(new ResourceLocation("textures/optifine/eyes_e.png")).hasKey("overlay"));
+    }
+
+    @Test
+    public void parse_SameDefaultMetadataNewReload_ParsedAgain() throws InvalidMetadataException {
+        int[] streamCount = new int[1];
+        List<Set<ResourceLocation>> packs = ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes.png"),
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("textures/optifine/eyes.png.mcmeta")
+                )
+        );
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+
+        parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                new MockResourceRepository(packs, () -> {
+                    streamCount[0]++;
+                    return new ByteArrayInputStream("{ \"animation\": {} }".getBytes());
+                })
+        );
+        Map<ResourceLocation, MetadataView> views = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                new MockResourceRepository(packs, () -> {
+                    streamCount[0]++;
+                    return new ByteArrayInputStream("{}".getBytes());
+                })
+        );
+
+        assertEquals(2, streamCount[0]);
+        assertFalse(views.get(new ResourceLocation("textures/optifine/eyes.png")).hasKey("animation"));
+    }
+
+    @Test
+    public void parse_EmissiveFileNewReload_NewOverlaysFound() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(new ResourceLocation("textures/entity/bee_e.png"))
+                ))
+        );
+
+        Map<ResourceLocation, MetadataView> views = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(new ResourceLocation("textures/entity/cow_e.png"))
+                ))
+        );
+
+        assertEquals(ImmutableSet.of(new ResourceLocation("textures/entity/cow.png")), views.keySet());
+    }
+
     @Test
     public void parse_HasEmissiveTexturesAndDefaultAnimationInSamePack_AllParsed() throws InvalidMetadataException {
         Map<ResourceLocation, MetadataView> views = PARSER.parse(
@@ -513,6 +1157,87 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void parse_ManyEmissiveTexturesInParallel_SameAsSequential() throws InvalidMetadataException {
+        Set<ResourceLocation> pack = new HashSet<>();
+        for (int index = 0; index < 200; index++) {
+            pack.add(new ResourceLocation("textures/block/texture" + index + ".png"));
+            pack.add(new ResourceLocation("textures/block/texture" + index + "_e.png"));
+            if (index % 3 == 0) {
+                pack.add(new ResourceLocation("textures/block/texture" + index + ".png.mcmeta"));
+            }
+            if (index % 5 == 0) {
+                pack.add(new ResourceLocation("textures/block/texture" + index + "_e.png.mcmeta"));
+            }
+        }
+
+        MockResourceRepository repository = new MockResourceRepository(
+                ImmutableList.of(pack),
+                () -> new ByteArrayInputStream("{ \"animation\": {} }".getBytes())
+        );
+        PropertiesMetadataParser sequentialParser = new PropertiesMetadataParser(
+                PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES, PropertiesMetadataParser.CombineMode.LAYERED, 1
+        );
+        PropertiesMetadataParser parallelParser = new PropertiesMetadataParser(
+                PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES, PropertiesMetadataParser.CombineMode.LAYERED, 4
+        );
+
+        Map<ResourceLocation, MetadataView> expected = sequentialParser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+        Map<ResourceLocation, MetadataView> actual = parallelParser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(240, expected.size());
+        assertEquals(expected.keySet(), actual.keySet());
+        for (ResourceLocation location : expected.keySet()) {
+            MetadataView expectedView = expected.get(location);
+            MetadataView actualView = actual.get(location);
+            assertEquals(ImmutableList.copyOf(expectedView.keys()), ImmutableList.copyOf(actualView.keys()));
+            assertEquals(
+                    expectedView.subView("overlay").flatMap((overlay) -> overlay.stringValue("texture")),
+                    actualView.subView("overlay").flatMap((overlay) -> overlay.stringValue("texture"))
+            );
+        }
+    }
+
+    @Test
+    public void parse_ManyEmissiveTexturesInParallel_ResourcesOnlyReadOnCallingThread()
+            throws InvalidMetadataException {
+        Set<ResourceLocation> pack = new HashSet<>();
+        for (int index = 0; index < 200; index++) {
+            pack.add(new ResourceLocation("textures/block/texture" + index + ".png"));
+            pack.add(new ResourceLocation("textures/block/texture" + index + "_e.png"));
+            pack.add(new ResourceLocation("textures/block/texture" + index + ".png.mcmeta"));
+        }
+
+        Set<Thread> readingThreads = ConcurrentHashMap.newKeySet();
+        MockResourceRepository repository = new MockResourceRepository(
+                ImmutableList.of(pack),
+                () -> {
+                    readingThreads.add(Thread.currentThread());
+                    return new ByteArrayInputStream("{ \"animation\": {} }".getBytes());
+                }
+        );
+        PropertiesMetadataParser parser = new PropertiesMetadataParser(
+                PropertiesMetadataParser.AnimationMode.ALL_PROPERTIES, PropertiesMetadataParser.CombineMode.LAYERED, 4
+        );
+
+        Map<ResourceLocation, MetadataView> views = parser.parse(
+                new ResourceLocation("optifine/emissive.properties"),
+                makePropertiesStream("suffix.emissive=_e"),
+                repository
+        );
+
+        assertEquals(200, views.size());
+        assertEquals(ImmutableSet.of(Thread.currentThread()), readingThreads);
+    }
+
     @Test
     public void parse_HasEmissiveTexturesAndDefaultAnimationInPackBelow_DefaultAnimIgnored() throws InvalidMetadataException {
         Map<ResourceLocation, MetadataView> views = PARSER.parse(
@@ -1325,6 +2050,167 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void parse_FrameKeyWithLeadingZeros_OnlyExtendsFrames() throws InvalidMetadataException {
+        Map<ResourceLocation, MetadataView> views = PARSER.parse(
+                new ResourceLocation("optifine/anim/creepereyes.properties"),
+                makePropertiesStream(
+                        "to=textures/entity/creeper.png",
+                        "tile.0=1",
+                        "tile.03=2",
+                        "duration.003=4"
+                ),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("textures/entity/creeper.png"),
+                                new ResourceLocation("optifine/anim/creepereyes.properties")
+                        )
+                ))
+        );
+
+        MetadataView framesView = views.get(new ResourceLocation("textures/entity/creeper.png"))
+                .subView("animation").orElseThrow()
+                .subView("parts").orElseThrow()
+                .subView(0).orElseThrow()
+                .subView("frames").orElseThrow();
+
+        assertEquals(4, framesView.size());
+        assertEquals(1, (int) framesView.subView(0).orElseThrow().integerValue("index").orElseThrow());
+        assertEquals(3, (int) framesView.subView(3).orElseThrow().integerValue("index").orElseThrow());
+        assertFalse(framesView.subView(3).orElseThrow().hasKey("time"));
+    }
+
+    @Test
+    public void parse_FrameIndexTooLarge_NotFrameKey() throws InvalidMetadataException {
+        Map<ResourceLocation, MetadataView> views = PARSER.parse(
+                new ResourceLocation("optifine/anim/creepereyes.properties"),
+                makePropertiesStream(
+                        "to=textures/entity/creeper.png",
+                        "tile.0=1",
+                        "tile.2147483647=2"
+                ),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("textures/entity/creeper.png"),
+                                new ResourceLocation("optifine/anim/creepereyes.properties")
+                        )
+                ))
+        );
+
+        MetadataView animationView = views.get(new ResourceLocation("textures/entity/creeper.png"))
+                .subView("animation").orElseThrow()
+                .subView("parts").orElseThrow()
+                .subView(0).orElseThrow();
+
+        assertEquals(1, animationView.subView("frames").orElseThrow().size());
+        assertEquals(2, (int) animationView.integerValue("tile.2147483647").orElseThrow());
+    }
+
+    @Test
+    public void parse_AllPropertiesMode_RawKeysRetained() throws InvalidMetadataException {
+        MetadataView animationView = parseSchemaTestAnimation(PARSER);
+
+        assertEquals(10, (int) animationView.integerValue("width").orElseThrow());
+        assertEquals(10, (int) animationView.integerValue("w").orElseThrow());
+        assertEquals(5, (int) animationView.integerValue("frametime").orElseThrow());
+        assertEquals(5, (int) animationView.integerValue("duration").orElseThrow());
+        assertEquals("textures/entity/creeper.png", animationView.stringValue("to").orElseThrow());
+        assertEquals(2, (int) animationView.integerValue("tile.1").orElseThrow());
+        assertEquals("value", animationView.stringValue("custom").orElseThrow());
+        assertEquals(2, animationView.subView("frames").orElseThrow().size());
+    }
+
+    @Test
+    public void parse_SchemaRetainUnknownModeKeysLikeKnownKeys_KeptAsUnknown() throws InvalidMetadataException {
+        Map<ResourceLocation, MetadataView> views = new PropertiesMetadataParser(
+                PropertiesMetadataParser.AnimationMode.SCHEMA_RETAIN_UNKNOWN
+        ).parse(
+                new ResourceLocation("optifine/anim/creepereyes.properties"),
+                makePropertiesStream(
+                        "from=optifine/anim/eyes.png",
+                        "to=textures/entity/creeper.png",
+                        "z=1",
+                        "tx=2",
+                        "fram=3",
+                        "slip=4",
+                        "durable=5",
+                        "durations=6",
+                        "interpolatf=7",
+                        "smoothAlphb=8"
+                ),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("textures/entity/creeper.png"),
+                                new ResourceLocation("optifine/anim/eyes.png"),
+                                new ResourceLocation("optifine/anim/creepereyes.properties")
+                        )
+                ))
+        );
+
+        MetadataView animationView = views.get(new ResourceLocation("textures/entity/creeper.png"))
+                .subView("animation").orElseThrow()
+                .subView("parts").orElseThrow()
+                .subView(0).orElseThrow();
+        assertEquals(
+                ImmutableSet.of("texture", "z", "tx", "fram", "slip", "durable", "durations", "interpolatf",
+                        "smoothAlphb"),
+                ImmutableSet.copyOf(animationView.keys())
+        );
+        assertEquals(4, (int) animationView.integerValue("slip").orElseThrow());
+    }
+
+    @Test
+    public void parse_SchemaRetainUnknownMode_OnlyConsumedKeysRemoved() throws InvalidMetadataException {
+        MetadataView animationView = parseSchemaTestAnimation(
+                new PropertiesMetadataParser(PropertiesMetadataParser.AnimationMode.SCHEMA_RETAIN_UNKNOWN)
+        );
+
+        assertEquals(
+                ImmutableSet.of("texture", "x", "y", "width", "height", "frametime", "interpolate", "skip",
+                        "smoothAlpha", "frames", "custom", "tile.x"),
+                ImmutableSet.copyOf(animationView.keys())
+        );
+        assertTrue(animationView.byteStreamValue("texture").isPresent());
+        assertEquals(0, (int) animationView.integerValue("x").orElseThrow());
+        assertEquals(20, (int) animationView.integerValue("y").orElseThrow());
+        assertEquals(10, (int) animationView.integerValue("width").orElseThrow());
+        assertEquals(30, (int) animationView.integerValue("height").orElseThrow());
+        assertEquals(5, (int) animationView.integerValue("frametime").orElseThrow());
+        assertEquals(3, (int) animationView.integerValue("skip").orElseThrow());
+        assertTrue(animationView.booleanValue("interpolate").orElseThrow());
+        assertTrue(animationView.booleanValue("smoothAlpha").orElseThrow());
+        assertEquals("value", animationView.stringValue("custom").orElseThrow());
+        assertEquals("1", animationView.stringValue("tile.x").orElseThrow());
+
+        MetadataView framesView = animationView.subView("frames").orElseThrow();
+        assertEquals(2, framesView.size());
+        assertEquals(0, (int) framesView.subView(0).orElseThrow().integerValue("index").orElseThrow());
+        assertEquals(8, (int) framesView.subView(0).orElseThrow().integerValue("time").orElseThrow());
+        assertEquals(2, (int) framesView.subView(1).orElseThrow().integerValue("index").orElseThrow());
+        assertFalse(framesView.subView(1).orElseThrow().integerValue("time").isPresent());
+    }
+
+    @Test
+    public void parse_SchemaOnlyMode_UnknownKeysSkipped() throws InvalidMetadataException {
+        MetadataView animationView = parseSchemaTestAnimation(
+                new PropertiesMetadataParser(PropertiesMetadataParser.AnimationMode.SCHEMA_ONLY)
+        );
+
+        assertEquals(
+                ImmutableSet.of("texture", "x", "y", "width", "height", "frametime", "interpolate", "skip",
+                        "smoothAlpha", "frames"),
+                ImmutableSet.copyOf(animationView.keys())
+        );
+        assertEquals(10, (int) animationView.integerValue("width").orElseThrow());
+        assertEquals(2, animationView.subView("frames").orElseThrow().size());
+    }
+
+    @Test
+    public void construct_NullAnimationMode_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataParser(null);
+    }
+
     @Test
     public void parse_NonConsecutiveFrameKeys_AllParsed() throws InvalidMetadataException {
         Map<ResourceLocation, MetadataView> views = PARSER.parse(
@@ -1648,6 +2534,43 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    @Test
+    public void parse_TwoAnimationsInSameReload_KeysShared() throws InvalidMetadataException {
+        PropertiesMetadataParser parser = new PropertiesMetadataParser();
+        MockResourceRepository repository = new MockResourceRepository(ImmutableList.of(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/entity/creeper.png"),
+                        new ResourceLocation("textures/entity/zombie.png")
+                )
+        ));
+
+        MetadataView first = parser.parse(
+                new ResourceLocation("optifine/anim/creeper.properties"),
+                makePropertiesStream("to=textures/entity/creeper.png", "customKey=1", "w=10"),
+                repository
+        ).get(new ResourceLocation("textures/entity/creeper.png"));
+        MetadataView second = parser.parse(
+                new ResourceLocation("optifine/anim/zombie.properties"),
+                makePropertiesStream("w=5", "to=textures/entity/zombie.png", "customKey=2"),
+                repository
+        ).get(new ResourceLocation("textures/entity/zombie.png"));
+
+        Map<String, String> firstKeys = new HashMap<>();
+        for (String key : first.subView("animation").orElseThrow().subView("parts").orElseThrow()
+                .subView(0).orElseThrow().keys()) {
+            firstKeys.put(key, key);
+        }
+
+        int sharedKeys = 0;
+        for (String key : second.subView("animation").orElseThrow().subView("parts").orElseThrow()
+                .subView(0).orElseThrow().keys()) {
+            assertSame(firstKeys.get(key), key);
+            sharedKeys++;
+        }
+
+        assertEquals(4, sharedKeys);
+    }
+
     @Test
     public void parse_AnimationTextureInPackBelow_NoException() throws InvalidMetadataException {
         Map<ResourceLocation, MetadataView> views = PARSER.parse(
@@ -1990,6 +2913,67 @@ public final class PropertiesMetadataParserTest {
         );
     }
 
+    private static MetadataView parseSchemaTestAnimation(PropertiesMetadataParser parser)
+            throws InvalidMetadataException {
+        Map<ResourceLocation, MetadataView> views = parser.parse(
+                new ResourceLocation("optifine/anim/creepereyes.properties"),
+                makePropertiesStream(
+                        "from=optifine/anim/eyes.png",
+                        "to=textures/entity/creeper.png",
+                        "x=0",
+                        "y=20",
+                        "w=10",
+                        "width=27",
+                        "h=30",
+                        "duration=5",
+                        "interpolate=true",
+                        "skip=3",
+                        "smoothAlpha=true",
+                        "tile.0=0",
+                        "tile.1=2",
+                        "tile.x=1",
+                        "duration.0=8",
+                        "custom=value"
+                ),
+                new MockResourceRepository(ImmutableList.of(
+                        ImmutableSet.of(
+                                new ResourceLocation("textures/entity/creeper.png"),
+                                new ResourceLocation("optifine/anim/eyes.png"),
+                                new ResourceLocation("optifine/anim/creepereyes.properties")
+                        )
+                ))
+        );
+
+        return views.get(new ResourceLocation("textures/entity/creeper.png"))
+                .subView("animation").orElseThrow()
+                .subView("parts").orElseThrow()
+                .subView(0).orElseThrow();
+    }
+
+    private static void assertSameCombination(MetadataView expected, MetadataView actual) {
+        assertEquals(ImmutableList.copyOf(expected.keys()), ImmutableList.copyOf(actual.keys()));
+        for (String section : expected.keys()) {
+            if (!section.equals("animation")) {
+                assertSame(expected.subView(section).orElseThrow(), actual.subView(section).orElseThrow());
+            }
+        }
+
+        Optional<MetadataView> expectedParts = expected.subView("animation")
+                .flatMap((animation) -> animation.subView("parts"));
+        Optional<MetadataView> actualParts = actual.subView("animation")
+                .flatMap((animation) -> animation.subView("parts"));
+        assertEquals(expectedParts.isPresent(), actualParts.isPresent());
+        if (expectedParts.isPresent()) {
+            assertEquals(expectedParts.get().size(), actualParts.get().size());
+            for (int index = 0; index < expectedParts.get().size(); index++) {
+                assertSame(
+                        expectedParts.get().subView(index).orElseThrow(),
+                        actualParts.get().subView(index).orElseThrow()
+                );
+            }
+        }
+    }
+
     private static InputStream makePropertiesStream(String... lines) {
         String properties = String.join("\n", lines);
         return new ByteArrayInputStream(properties.getBytes());
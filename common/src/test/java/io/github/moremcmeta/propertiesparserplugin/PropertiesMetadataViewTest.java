@@ -27,8 +27,12 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -41,6 +45,14 @@ import static org.junit.Assert.assertTrue;
  */
 public final class PropertiesMetadataViewTest {
     private static final InputStream MOCK_STREAM = new ByteArrayInputStream("stream".getBytes());
+    private static final List<String> NUMBER_EDGE_CASES = List.of(
+            "", "+", "-", "0", "+0", "-0", "007", "auto", "10 ", " 10", "1_000", "\u0661\u0662", "\uFF11",
+            "2147483647", "2147483648", "-2147483648", "-2147483649",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-09223372036854775808",
+            "-9223372036854775809", "1.", ".5", ".", "1.5.5", "1e", "1e+", "1e-5", "1E5", ".e1", "1.5f", "1.5D",
+            "1.5ff", "f", "1e39", "1e39f", "3.4e38", "1e309", "NaN", "-Infinity", "Infinity", "  2.5\t",
+            "0x1p3", "0x1.8p1d", "0X.8P-1F", "0x1", "0x1f", "0xp1", "0x1pd", "0x1.g"
+    );
 
     @Rule
     public final ExpectedException expectedException = ExpectedException.none();
@@ -51,6 +63,76 @@ public final class PropertiesMetadataViewTest {
         new PropertiesMetadataView(null);
     }
 
+    @Test
+    public void construct_NullKeyInRoot_NullPointerException() {
+        Map<String, PropertiesMetadataView.Value> root = new HashMap<>();
+        root.put(null, new PropertiesMetadataView.Value("value"));
+
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataView(root);
+    }
+
+    @Test
+    public void construct_NullValueInRoot_NullPointerException() {
+        Map<String, PropertiesMetadataView.Value> root = new HashMap<>();
+        root.put("key", null);
+
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataView(root);
+    }
+
+    @Test
+    public void construct_NullSingleKey_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataView(null, new PropertiesMetadataView.Value("value"));
+    }
+
+    @Test
+    public void construct_NullSingleValue_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new PropertiesMetadataView("key", null);
+    }
+
+    @Test
+    public void construct_SingleProperty_PropertyFound() {
+        PropertiesMetadataView view = new PropertiesMetadataView("key", new PropertiesMetadataView.Value("10"));
+        assertEquals(1, view.size());
+        assertEquals(List.of("key"), collectKeys(view.keys()));
+        assertEquals(10, (int) view.integerValue("key").orElseThrow());
+        assertEquals(10, (int) view.integerValue(0).orElseThrow());
+        assertFalse(view.hasKey("other"));
+    }
+
+    @Test
+    public void construct_MutableRootChangedLater_ViewUnchanged() {
+        Map<String, PropertiesMetadataView.Value> root = new LinkedHashMap<>();
+        root.put("first", new PropertiesMetadataView.Value("1"));
+        PropertiesMetadataView view = new PropertiesMetadataView(root);
+
+        root.put("second", new PropertiesMetadataView.Value("2"));
+        assertEquals(1, view.size());
+        assertFalse(view.hasKey("second"));
+    }
+
+    @Test
+    public void construct_ManyKeys_AllKeysFoundInOrder() {
+        Map<String, PropertiesMetadataView.Value> root = new LinkedHashMap<>();
+        for (int index = 0; index < 100; index++) {
+            root.put("key" + index, new PropertiesMetadataView.Value(String.valueOf(index)));
+        }
+
+        PropertiesMetadataView view = new PropertiesMetadataView(root);
+        assertEquals(100, view.size());
+        assertEquals(new ArrayList<>(root.keySet()), collectKeys(view.keys()));
+        for (int index = 0; index < 100; index++) {
+            assertEquals(index, (int) view.integerValue("key" + index).orElseThrow());
+            assertEquals(index, (int) view.integerValue(index).orElseThrow());
+        }
+
+        assertFalse(view.hasKey("key100"));
+        assertFalse(view.hasKey((String) null));
+    }
+
     @Test
     public void size_Empty_0() {
         PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of());
@@ -1348,6 +1430,142 @@ public final class PropertiesMetadataViewTest {
         assertFalse(view.doubleValue(15).isPresent());
     }
 
+    @Test
+    public void numericValues_CalledRepeatedly_SameResult() {
+        PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of(
+                "hello", new PropertiesMetadataView.Value("10")
+        ));
+
+        assertEquals(10, (int) view.integerValue("hello").orElseThrow());
+        assertEquals(10, (int) view.integerValue("hello").orElseThrow());
+        assertEquals(10, (int) view.integerValue(0).orElseThrow());
+        assertEquals(10d, view.doubleValue("hello").orElseThrow(), 0d);
+        assertEquals(10d, view.doubleValue(0).orElseThrow(), 0d);
+    }
+
+    @Test
+    public void numericValues_IntegerParseFailed_OtherTypesStillParsed() {
+        PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of(
+                "hello", new PropertiesMetadataView.Value("10.5")
+        ));
+
+        assertFalse(view.integerValue("hello").isPresent());
+        assertFalse(view.integerValue(0).isPresent());
+        assertFalse(view.longValue("hello").isPresent());
+        assertEquals(10.5f, view.floatValue("hello").orElseThrow(), 0f);
+        assertEquals(10.5f, view.floatValue(0).orElseThrow(), 0f);
+    }
+
+    @Test
+    public void numericValues_ValueSharedByViews_SameResultInBoth() {
+        PropertiesMetadataView.Value value = new PropertiesMetadataView.Value("-20");
+        PropertiesMetadataView first = new PropertiesMetadataView(ImmutableMap.of("first", value));
+        PropertiesMetadataView second = new PropertiesMetadataView(ImmutableMap.of("second", value));
+
+        assertEquals(-20L, (long) first.longValue("first").orElseThrow());
+        assertEquals(-20L, (long) second.longValue("second").orElseThrow());
+    }
+
+    @Test
+    public void parseInteger_EdgeCases_SameAsJdk() {
+        for (String value : NUMBER_EDGE_CASES) {
+            Optional<Integer> expected;
+            try {
+                expected = Optional.of(Integer.parseInt(value));
+            } catch (NumberFormatException err) {
+                expected = Optional.empty();
+            }
+
+            assertEquals(value, expected, PropertiesMetadataView.parseInteger(value));
+        }
+    }
+
+    @Test
+    public void parseLong_EdgeCases_SameAsJdk() {
+        for (String value : NUMBER_EDGE_CASES) {
+            Optional<Long> expected;
+            try {
+                expected = Optional.of(Long.parseLong(value));
+            } catch (NumberFormatException err) {
+                expected = Optional.empty();
+            }
+
+            assertEquals(value, expected, PropertiesMetadataView.parseLong(value));
+        }
+    }
+
+    @Test
+    public void parseFloat_EdgeCases_SameAsJdk() {
+        for (String value : NUMBER_EDGE_CASES) {
+            Optional<Float> expected;
+            try {
+                float floatValue = Float.parseFloat(value);
+                expected = Float.isFinite(floatValue) ? Optional.of(floatValue) : Optional.empty();
+            } catch (NumberFormatException err) {
+                expected = Optional.empty();
+            }
+
+            assertEquals(value, expected, PropertiesMetadataView.parseFloat(value));
+        }
+    }
+
+    @Test
+    public void parseDouble_EdgeCases_SameAsJdk() {
+        for (String value : NUMBER_EDGE_CASES) {
+            Optional<Double> expected;
+            try {
+                double doubleValue = Double.parseDouble(value);
+                expected = Double.isFinite(doubleValue) ? Optional.of(doubleValue) : Optional.empty();
+            } catch (NumberFormatException err) {
+                expected = Optional.empty();
+            }
+
+            assertEquals(value, expected, PropertiesMetadataView.parseDouble(value));
+        }
+    }
+
+    @Test
+    public void primitiveValues_StringVal_ValuesConverted() {
+        PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of(
+                "int", new PropertiesMetadataView.Value("1000"),
+                "decimal", new PropertiesMetadataView.Value("2.5"),
+                "bool", new PropertiesMetadataView.Value("TRUE")
+        ));
+
+        assertEquals(1000, view.integerValueOr("int", -1));
+        assertEquals(1000, view.integerValueOr(0, -1));
+        assertEquals(1000L, view.longValueOr("int", -1L));
+        assertEquals(2.5f, view.floatValueOr("decimal", -1f), 0f);
+        assertEquals(2.5d, view.doubleValueOr(1, -1d), 0d);
+        assertTrue(view.booleanValueOr("bool", false));
+        assertFalse(view.booleanValueOr("int", true));
+    }
+
+    @Test
+    public void primitiveValues_NotConvertible_DefaultReturned() {
+        PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of(
+                "decimal", new PropertiesMetadataView.Value("2.5"),
+                "stream", new PropertiesMetadataView.Value(MOCK_STREAM),
+                "view", new PropertiesMetadataView.Value(new PropertiesMetadataView(ImmutableMap.of()))
+        ));
+
+        assertEquals(-1, view.integerValueOr("decimal", -1));
+        assertEquals(-1L, view.longValueOr(0, -1L));
+        assertEquals(-1, view.integerValueOr("missing", -1));
+        assertEquals(-1, view.integerValueOr(3, -1));
+        assertEquals(-1f, view.floatValueOr("stream", -1f), 0f);
+        assertEquals(-1d, view.doubleValueOr(2, -1d), 0d);
+        assertTrue(view.booleanValueOr("view", true));
+        assertTrue(view.booleanValueOr(1, true));
+    }
+
+    @Test
+    public void primitiveValues_NegativeIndex_NegativeKeyIndexException() {
+        PropertiesMetadataView view = new PropertiesMetadataView(ImmutableMap.of());
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.integerValueOr(-1, 0);
+    }
+
     @Test
     public void booleanValueString_KeyNotPresent_Empty() {
         PropertiesMetadataView view = new PropertiesMetadataView(makeDemoMap());
@@ -0,0 +1,235 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link PropertiesReader}.
+ * @author soir20
+ */
+public final class PropertiesReaderTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void read_NullStream_NullPointerException() throws IOException, InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        PropertiesReader.read(null);
+    }
+
+    @Test
+    public void read_BadStream_IOException() throws IOException, InvalidMetadataException {
+        InputStream badStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("dummy");
+            }
+        };
+
+        expectedException.expect(IOException.class);
+        PropertiesReader.read(badStream);
+    }
+
+    @Test
+    public void read_Empty_NoProperties() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("");
+    }
+
+    @Test
+    public void read_EqualsSeparator_KeyAndValueSplit() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("from=optifine/anim/eyes.png\nto=textures/entity/creeper.png");
+    }
+
+    @Test
+    public void read_ColonSeparator_KeyAndValueSplit() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("from:optifine/anim/eyes.png\nto:textures/entity/creeper.png");
+    }
+
+    @Test
+    public void read_WhitespaceSeparator_KeyAndValueSplit() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("from optifine/anim/eyes.png\nto\ttextures/entity/creeper.png\nx\f10");
+    }
+
+    @Test
+    public void read_WhitespaceAroundSeparator_WhitespaceRemoved() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("  from \t=  optifine/anim/eyes.png  \n\tto :textures/entity/creeper.png");
+    }
+
+    @Test
+    public void read_MultipleSeparators_OnlyFirstRemoved() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a==b\nc::d\ne :=f\ng = =h");
+    }
+
+    @Test
+    public void read_NoValue_EmptyValue() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a\nb=\nc:  \nd   ");
+    }
+
+    @Test
+    public void read_NoKey_EmptyKey() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("=value");
+    }
+
+    @Test
+    public void read_DuplicateKeys_LastValueUsed() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("w=10\nw=20\nw=30");
+    }
+
+    @Test
+    public void read_Comments_CommentsIgnored() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("# comment\n! other comment\n  # indented=comment\nx=0 # not a comment\n#");
+    }
+
+    @Test
+    public void read_CommentEndsWithBackslash_NextLineNotJoined() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("# comment \\\nx=0");
+    }
+
+    @Test
+    public void read_BlankLines_BlankLinesIgnored() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("\n\n   \n\t\nx=0\n\n\ny=1\n\n");
+    }
+
+    @Test
+    public void read_AllLineTerminators_LinesSplit() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=1\nb=2\rc=3\r\nd=4\n\re=5");
+    }
+
+    @Test
+    public void read_ContinuationLines_LinesJoined() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=one \\\n    two\\\r\n\tthree\\\r  four\nb\\\n  c=5");
+    }
+
+    @Test
+    public void read_EvenTrailingBackslashes_LineNotContinued() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=one\\\\\nb=two\\\\\\\nthree");
+    }
+
+    @Test
+    public void read_ContinuationFollowedByBlankLine_LineEnds() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=one\\\n   \nb=two");
+    }
+
+    @Test
+    public void read_ContinuationFollowedByComment_CommentIgnored() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("\\\n# comment\na=one\\\n# not a comment");
+    }
+
+    @Test
+    public void read_TrailingBackslashAtEnd_BackslashDropped() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=one\\");
+        assertMatchesProperties("a=one\n\\");
+        assertMatchesProperties("a=one\n\\\n");
+    }
+
+    @Test
+    public void read_EscapedSeparators_SeparatorsInKey() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a\\=b=c\nd\\:e:f\ng\\ h i\nj\\\\=k");
+    }
+
+    @Test
+    public void read_CharacterEscapes_Converted() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("a=\\t\\r\\n\\f\\\\\\z\\=\\:\\#\\!\nb\\t=c");
+    }
+
+    @Test
+    public void read_UnicodeEscapes_Converted() throws IOException, InvalidMetadataException {
+        assertMatchesProperties("\\u0061=\\u00e9\\u00E9\\u4e2d\nb=\\u00\\\n  41");
+    }
+
+    @Test
+    public void read_NonAsciiBytes_ReadAsLatin1() throws IOException, InvalidMetadataException {
+        assertMatchesProperties(new byte[] { 'a', '=', (byte) 0xE9, (byte) 0xFF, '\n', (byte) 0xA0, '=', 'b' });
+    }
+
+    @Test
+    public void read_UnicodeEscapeTooShort_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        PropertiesReader.read(makeStream("a=\\u00e"));
+    }
+
+    @Test
+    public void read_UnicodeEscapeNotHex_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        PropertiesReader.read(makeStream("a=\\u00eg"));
+    }
+
+    @Test
+    public void read_LongLines_AllRead() throws IOException, InvalidMetadataException {
+        StringBuilder builder = new StringBuilder();
+        for (int line = 0; line < 500; line++) {
+            builder.append("key").append(line).append('=').append("value".repeat(line)).append('\n');
+        }
+
+        assertMatchesProperties(builder.toString());
+    }
+
+    @Test
+    public void read_StreamReturnsOneByteAtATime_AllRead() throws IOException, InvalidMetadataException {
+        String properties = "a=one \\\r\n  two\r\nb\\u0041=\\u0042\r\n# comment\r\nc d";
+        InputStream slowStream = new FilterInputStream(makeStream(properties)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+
+        assertEquals(
+                ImmutableMap.of("a", "one two", "bA", "B", "c", "d"),
+                PropertiesReader.read(slowStream)
+        );
+    }
+
+    private static void assertMatchesProperties(String properties) throws IOException, InvalidMetadataException {
+        assertMatchesProperties(properties.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void assertMatchesProperties(byte[] properties) throws IOException, InvalidMetadataException {
+        Properties expectedProperties = new Properties();
+        expectedProperties.load(new ByteArrayInputStream(properties));
+
+        Map<String, String> expected = new HashMap<>();
+        for (String key : expectedProperties.stringPropertyNames()) {
+            expected.put(key, expectedProperties.getProperty(key));
+        }
+
+        assertEquals(expected, PropertiesReader.read(new ByteArrayInputStream(properties)));
+    }
+
+    private static InputStream makeStream(String properties) {
+        return new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link PropertiesTokens}.
+ * @author soir20
+ */
+public final class PropertiesTokensTest {
+
+    @Test
+    public void size_DuplicateKeys_AllEntriesKept() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a=1\nb=2\na=3");
+        assertEquals(3, tokens.size());
+        assertEquals("a", tokens.key(2));
+        assertEquals("3", tokens.value(2));
+    }
+
+    @Test
+    public void keyAndValue_EscapesInFile_Converted() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a\\=b=\\u0041\\tc\nempty=");
+        assertEquals("a=b", tokens.key(0));
+        assertEquals("A\tc", tokens.value(0));
+        assertEquals("empty", tokens.key(1));
+        assertEquals("", tokens.value(1));
+    }
+
+    @Test
+    public void keyEquals_SameKey_True() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("tile.5=1");
+        assertTrue(tokens.keyEquals(0, "tile.5"));
+    }
+
+    @Test
+    public void keyEquals_DifferentKey_False() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("tile.5=1");
+        assertFalse(tokens.keyEquals(0, "tile.6"));
+        assertFalse(tokens.keyEquals(0, "tile."));
+        assertFalse(tokens.keyEquals(0, "tile.55"));
+    }
+
+    @Test
+    public void keysEqual_SameAndDifferentKeys_Compared() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("x=1\ny=2\nx=3");
+        assertTrue(tokens.keysEqual(0, 2));
+        assertFalse(tokens.keysEqual(0, 1));
+    }
+
+    @Test
+    public void keyStartsWith_Prefix_Checked() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("duration.10=1");
+        assertTrue(tokens.keyStartsWith(0, "duration."));
+        assertTrue(tokens.keyStartsWith(0, "duration.10"));
+        assertFalse(tokens.keyStartsWith(0, "duration.100"));
+        assertFalse(tokens.keyStartsWith(0, "tile."));
+        assertEquals(11, tokens.keyLength(0));
+        assertEquals('1', tokens.keyCharAt(0, 9));
+    }
+
+    @Test
+    public void keyHash_AnyKey_SameAsString() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("smoothAlpha=true\n=empty");
+        assertEquals("smoothAlpha".hashCode(), tokens.keyHash(0));
+        assertEquals("".hashCode(), tokens.keyHash(1));
+    }
+
+    @Test
+    public void valueEquals_SameAndDifferentValues_Compared() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("duration=10\nempty=");
+        assertTrue(tokens.valueEquals(0, "10"));
+        assertFalse(tokens.valueEquals(0, "1"));
+        assertFalse(tokens.valueEquals(0, "100"));
+        assertTrue(tokens.valueEquals(1, ""));
+    }
+
+    @Test
+    public void valueHash_AnyValue_SameAsString() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("smoothAlpha=true\nempty=");
+        assertEquals("true".hashCode(), tokens.valueHash(0));
+        assertEquals("".hashCode(), tokens.valueHash(1));
+    }
+
+    @Test
+    public void copyValue_AnyValue_CopiedAtOffset() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a=true\nb=");
+        char[] buffer = new char[6];
+        tokens.copyValue(0, buffer, 1);
+        tokens.copyValue(1, buffer, 5);
+        assertEquals("\0true\0", new String(buffer));
+        assertEquals(4, tokens.valueLength(0));
+        assertEquals(0, tokens.valueLength(1));
+    }
+
+    @Test
+    public void canonicalIntValue_CanonicalIntegers_Parsed() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a=0\nb=15\nc=-7\nd=2147483647\ne=-2147483648");
+        assertEquals(0, tokens.canonicalIntValue(0));
+        assertEquals(15, tokens.canonicalIntValue(1));
+        assertEquals(-7, tokens.canonicalIntValue(2));
+        assertEquals(Integer.MAX_VALUE, tokens.canonicalIntValue(3));
+        assertEquals(Integer.MIN_VALUE, tokens.canonicalIntValue(4));
+    }
+
+    @Test
+    public void canonicalIntValue_NotCanonical_NotCanonical() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize(
+                "a=\nb=05\nc=-0\nd=+1\ne=2147483648\nf=-2147483649\ng=1.0\nh=-\ni=99999999999\nj=abc"
+        );
+        for (int entry = 0; entry < tokens.size(); entry++) {
+            assertEquals(tokens.key(entry), PropertiesTokens.NOT_CANONICAL, tokens.canonicalIntValue(entry));
+        }
+    }
+
+    @Test
+    public void build_ManyLongEntries_AllKept() throws IOException, InvalidMetadataException {
+        StringBuilder builder = new StringBuilder();
+        for (int line = 0; line < 200; line++) {
+            builder.append("key").append(line).append('=').append("value".repeat(line)).append('\n');
+        }
+
+        PropertiesTokens tokens = tokenize(builder.toString());
+        assertEquals(200, tokens.size());
+        for (int entry = 0; entry < 200; entry++) {
+            assertEquals("key" + entry, tokens.key(entry));
+            assertEquals("value".repeat(entry), tokens.value(entry));
+        }
+    }
+
+    private static PropertiesTokens tokenize(String properties) throws IOException, InvalidMetadataException {
+        return PropertiesReader.tokenize(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+}
\ No newline at end of file
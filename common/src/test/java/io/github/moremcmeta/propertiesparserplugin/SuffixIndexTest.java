@@ -0,0 +1,139 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link SuffixIndex}.
+ * @author soir20
+ */
+public final class SuffixIndexTest {
+    private static final List<ResourceLocation> LOCATIONS = ImmutableList.of(
+            new ResourceLocation("textures/optifine/eyes.png"),
+            new ResourceLocation("textures/optifine/eyes_e.png"),
+            new ResourceLocation("moremcmeta", "textures/dummy_e.png"),
+            new ResourceLocation("textures/entity/witch_f.png"),
+            new ResourceLocation("textures/entity/bee_e.png"),
+            new ResourceLocation("textures/entity/dolphin_e"),
+            new ResourceLocation("textures/e.png"),
+            new ResourceLocation("textures/entity/bee_ee.png")
+    );
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullLocations_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new SuffixIndex(null);
+    }
+
+    @Test
+    public void endingWith_NullSuffix_NullPointerException() {
+        SuffixIndex index = new SuffixIndex(LOCATIONS);
+
+        expectedException.expect(NullPointerException.class);
+        index.endingWith(null);
+    }
+
+    @Test
+    public void endingWith_NoLocations_NoneFound() {
+        assertTrue(new SuffixIndex(ImmutableList.of()).endingWith("_e.png").isEmpty());
+    }
+
+    @Test
+    public void endingWith_NoMatches_NoneFound() {
+        assertTrue(new SuffixIndex(LOCATIONS).endingWith("_g.png").isEmpty());
+    }
+
+    @Test
+    public void endingWith_SomeMatches_AllMatchesFound() {
+        assertEquals(
+                ImmutableSet.of(
+                        new ResourceLocation("textures/optifine/eyes_e.png"),
+                        new ResourceLocation("moremcmeta", "textures/dummy_e.png"),
+                        new ResourceLocation("textures/entity/bee_e.png")
+                ),
+                ImmutableSet.copyOf(new SuffixIndex(LOCATIONS).endingWith("_e.png"))
+        );
+    }
+
+    @Test
+    public void endingWith_SuffixIsWholePath_PathFound() {
+        assertEquals(
+                ImmutableList.of(new ResourceLocation("textures/e.png")),
+                new SuffixIndex(LOCATIONS).endingWith("textures/e.png")
+        );
+    }
+
+    @Test
+    public void endingWith_SuffixLongerThanPaths_NoneFound() {
+        assertTrue(new SuffixIndex(LOCATIONS).endingWith("moremcmeta/textures/optifine/eyes_e.png").isEmpty());
+    }
+
+    @Test
+    public void endingWith_EmptySuffix_AllFound() {
+        assertEquals(
+                ImmutableSet.copyOf(LOCATIONS),
+                ImmutableSet.copyOf(new SuffixIndex(LOCATIONS).endingWith(""))
+        );
+    }
+
+    @Test
+    public void endingWith_Modified_UnsupportedOperationException() {
+        List<ResourceLocation> matches = new SuffixIndex(LOCATIONS).endingWith("_e.png");
+
+        expectedException.expect(UnsupportedOperationException.class);
+        matches.clear();
+    }
+
+    @Test
+    public void endingWith_ManyLocations_SameAsScan() {
+        List<ResourceLocation> locations = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            locations.add(new ResourceLocation("textures/block/texture" + index + (index % 7 == 0 ? "_e" : "") + ".png"));
+        }
+
+        SuffixIndex index = new SuffixIndex(locations);
+        for (String suffix : ImmutableList.of("_e.png", "1_e.png", "7.png", "00.png", "texture0.png", ".png")) {
+            Set<ResourceLocation> expected = new HashSet<>();
+            for (ResourceLocation location : locations) {
+                if (location.getPath().endsWith(suffix)) {
+                    expected.add(location);
+                }
+            }
+
+            assertEquals(expected, ImmutableSet.copyOf(index.endingWith(suffix)));
+        }
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.NegativeKeyIndexException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TokenTableView}.
+ * @author soir20
+ */
+public final class TokenTableViewTest {
+    private static final InputStream MOCK_STREAM = new ByteArrayInputStream("stream".getBytes());
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullTokens_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TokenTableView.Builder(null, new KeySymbols(), new ValuePool());
+    }
+
+    @Test
+    public void construct_NullSymbols_NullPointerException() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a=1");
+        expectedException.expect(NullPointerException.class);
+        new TokenTableView.Builder(tokens, null, new ValuePool());
+    }
+
+    @Test
+    public void construct_NullValuePool_NullPointerException() throws IOException, InvalidMetadataException {
+        PropertiesTokens tokens = tokenize("a=1");
+        expectedException.expect(NullPointerException.class);
+        new TokenTableView.Builder(tokens, new KeySymbols(), null);
+    }
+
+    @Test
+    public void build_NoProperties_Empty() throws IOException, InvalidMetadataException {
+        TokenTableView view = new TokenTableView.Builder(tokenize("a=1"), new KeySymbols(), new ValuePool()).build();
+        assertEquals(0, view.size());
+        assertFalse(view.hasKey("a"));
+        assertFalse(view.keys().iterator().hasNext());
+    }
+
+    @Test
+    public void putEntry_EntryFromTable_KeyAndValueFromTable() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("a=1\nb=true"), new KeySymbols(), new ValuePool());
+        builder.putEntry(0);
+        builder.putEntry(1);
+        TokenTableView view = builder.build();
+
+        assertEquals(ImmutableList.of("a", "b"), ImmutableList.copyOf(view.keys()));
+        assertEquals("1", view.stringValue("a").orElseThrow());
+        assertEquals(1, (int) view.integerValue(0).orElseThrow());
+        assertTrue(view.booleanValue("b").orElseThrow());
+        assertFalse(view.byteStreamValue("a").isPresent());
+        assertFalse(view.subView("a").isPresent());
+    }
+
+    @Test
+    public void putEntry_Renamed_OnlyNewNameFound() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("w=16"), new KeySymbols(), new ValuePool());
+        builder.putEntry("width", 0);
+        TokenTableView view = builder.build();
+
+        assertEquals(ImmutableList.of("width"), ImmutableList.copyOf(view.keys()));
+        assertEquals(16, view.integerValueOr("width", -1));
+        assertFalse(view.hasKey("w"));
+    }
+
+    @Test
+    public void put_AddedValues_Found() throws IOException, InvalidMetadataException {
+        MetadataView subView = new PropertiesMetadataView("hello", new PropertiesMetadataView.Value("world"));
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize(""), new KeySymbols(), new ValuePool());
+        builder.put("texture", new PropertiesMetadataView.Value(MOCK_STREAM));
+        builder.put("frames", new PropertiesMetadataView.Value(subView));
+        TokenTableView view = builder.build();
+
+        assertSame(MOCK_STREAM, view.byteStreamValue("texture").orElseThrow());
+        assertSame(subView, view.subView(1).orElseThrow());
+        assertFalse(view.stringValue("texture").isPresent());
+    }
+
+    @Test
+    public void put_SameKeyTwice_LaterReplacesEarlierInPlace() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("a=1\nwidth=2\na=3\nw=4"), new KeySymbols(), new ValuePool());
+        builder.putEntry(0);
+        builder.putEntry(1);
+        builder.putEntry(2);
+        builder.putEntry("width", 3);
+        builder.put("a", new PropertiesMetadataView.Value(MOCK_STREAM));
+        TokenTableView view = builder.build();
+
+        assertEquals(ImmutableList.of("a", "width"), ImmutableList.copyOf(view.keys()));
+        assertSame(MOCK_STREAM, view.byteStreamValue("a").orElseThrow());
+        assertEquals(4, (int) view.integerValue("width").orElseThrow());
+    }
+
+    @Test
+    public void put_RenamedThenFromTable_TableKeyReplacesName() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("h=5\nheight=6"), new KeySymbols(), new ValuePool());
+        builder.putEntry("height", 0);
+        builder.putEntry(1);
+        TokenTableView view = builder.build();
+
+        assertEquals(1, view.size());
+        assertEquals(6, (int) view.integerValue("height").orElseThrow());
+    }
+
+    @Test
+    public void keys_SameSymbols_KeysShared() throws IOException, InvalidMetadataException {
+        KeySymbols symbols = new KeySymbols();
+        TokenTableView.Builder firstBuilder = new TokenTableView.Builder(tokenize("x=1\nw=2"), symbols, new ValuePool());
+        firstBuilder.putEntry(0);
+        firstBuilder.putEntry("width", 1);
+        TokenTableView.Builder secondBuilder = new TokenTableView.Builder(tokenize("width=3\nx=4"), symbols, new ValuePool());
+        secondBuilder.putEntry(0);
+        secondBuilder.putEntry(1);
+
+        List<String> firstKeys = ImmutableList.copyOf(firstBuilder.build().keys());
+        List<String> secondKeys = ImmutableList.copyOf(secondBuilder.build().keys());
+        assertSame(firstKeys.get(0), secondKeys.get(1));
+        assertSame(firstKeys.get(1), secondKeys.get(0));
+    }
+
+    @Test
+    public void integerValue_SameValuePool_ValuesShared() throws IOException, InvalidMetadataException {
+        KeySymbols symbols = new KeySymbols();
+        ValuePool valuePool = new ValuePool();
+        TokenTableView.Builder firstBuilder = new TokenTableView.Builder(tokenize("x=0"), symbols, valuePool);
+        firstBuilder.putEntry(0);
+        TokenTableView.Builder secondBuilder = new TokenTableView.Builder(tokenize("y=0"), symbols, valuePool);
+        secondBuilder.putEntry(0);
+
+        assertEquals(0, (int) firstBuilder.build().integerValue("x").orElseThrow());
+        assertEquals(0, (int) secondBuilder.build().integerValue("y").orElseThrow());
+        assertEquals(1, valuePool.hits());
+        assertEquals(1, valuePool.misses());
+    }
+
+    @Test
+    public void build_SameValuePool_ValuesSharedBeforeAccess() throws IOException, InvalidMetadataException {
+        ValuePool valuePool = new ValuePool();
+        TokenTableView.Builder firstBuilder = new TokenTableView.Builder(tokenize("x=true"), new KeySymbols(), valuePool);
+        firstBuilder.putEntry(0);
+        TokenTableView.Builder secondBuilder = new TokenTableView.Builder(tokenize("y=true"), new KeySymbols(), valuePool);
+        secondBuilder.putEntry(0);
+
+        TokenTableView first = firstBuilder.build();
+        TokenTableView second = secondBuilder.build();
+        assertEquals(1, valuePool.hits());
+        assertEquals(1, valuePool.misses());
+        assertSame(first.value("x"), second.value("y"));
+    }
+
+    @Test
+    public void build_LongValues_ReadWithoutPool() throws IOException, InvalidMetadataException {
+        ValuePool valuePool = new ValuePool();
+        TokenTableView.Builder builder = new TokenTableView.Builder(
+                tokenize("from=optifine/anim/eyes.png\nto=optifine/anim/eyes_e.png\nw=16"),
+                new KeySymbols(),
+                valuePool
+        );
+        builder.putEntry(0);
+        builder.putEntry(1);
+        builder.putEntry(2);
+
+        TokenTableView view = builder.build();
+        assertEquals(0, valuePool.hits());
+        assertEquals(1, valuePool.misses());
+        assertEquals("optifine/anim/eyes.png", view.stringValue("from").orElseThrow());
+        assertEquals("optifine/anim/eyes_e.png", view.stringValue("to").orElseThrow());
+        assertEquals(16, view.integerValueOr("w", -1));
+        assertEquals(1, valuePool.misses());
+    }
+
+    @Test
+    public void hasKey_EqualButNotCanonicalKey_Found() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("key=1"), new KeySymbols(), new ValuePool());
+        builder.putEntry(0);
+        assertTrue(builder.build().hasKey(new String("key")));
+    }
+
+    @Test
+    public void hasKey_ManyKeys_AllFound() throws IOException, InvalidMetadataException {
+        StringBuilder properties = new StringBuilder();
+        for (int line = 0; line < 100; line++) {
+            properties.append("key").append(line).append('=').append(line).append('\n');
+        }
+
+        PropertiesTokens tokens = tokenize(properties.toString());
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokens, new KeySymbols(), new ValuePool());
+        for (int entry = 0; entry < tokens.size(); entry++) {
+            builder.putEntry(entry);
+        }
+
+        TokenTableView view = builder.build();
+        assertEquals(100, view.size());
+        for (int line = 0; line < 100; line++) {
+            assertEquals(line, (int) view.integerValue("key" + line).orElseThrow());
+            assertEquals(line, view.integerValueOr(line, -1));
+        }
+
+        assertFalse(view.hasKey("key100"));
+        assertFalse(view.hasKey(null));
+    }
+
+    @Test
+    public void hasKey_NegativeIndex_NegativeKeyIndexException() throws IOException, InvalidMetadataException {
+        TokenTableView view = new TokenTableView.Builder(tokenize(""), new KeySymbols(), new ValuePool()).build();
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasKey(-1);
+    }
+
+    @Test
+    public void stringValue_IndexTooLarge_Empty() throws IOException, InvalidMetadataException {
+        TokenTableView.Builder builder = new TokenTableView.Builder(tokenize("a=1"), new KeySymbols(), new ValuePool());
+        builder.putEntry(0);
+        assertFalse(builder.build().stringValue(1).isPresent());
+    }
+
+    private static PropertiesTokens tokenize(String properties) throws IOException, InvalidMetadataException {
+        return PropertiesReader.tokenize(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+}
\ No newline at end of file
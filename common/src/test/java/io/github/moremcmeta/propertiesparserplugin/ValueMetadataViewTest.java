@@ -0,0 +1,97 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import com.google.gson.JsonObject;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.JsonMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link ValueMetadataView.KeyedValue}.
+ * @author soir20
+ */
+public final class ValueMetadataViewTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullView_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ValueMetadataView.KeyedValue(null, "key");
+    }
+
+    @Test
+    public void construct_NullKey_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ValueMetadataView.KeyedValue(PropertiesMetadataView.EMPTY, null);
+    }
+
+    @Test
+    public void integerValueOr_PrimitiveView_ValueFromView() {
+        MetadataView view = new PropertiesMetadataView("frametime", new PropertiesMetadataView.Value("5"));
+        ValueMetadataView.KeyedValue value = new ValueMetadataView.KeyedValue(view, "frametime");
+
+        assertEquals(5, value.integerValueOr(-1));
+        assertEquals(5L, value.longValueOr(-1));
+        assertEquals(Optional.of(5), value.integerValue());
+    }
+
+    @Test
+    public void integerValueOr_JsonView_ValueFromView() {
+        JsonObject object = new JsonObject();
+        object.addProperty("frametime", 5);
+        ValueMetadataView.KeyedValue value = new ValueMetadataView.KeyedValue(
+                new JsonMetadataView(object, String::compareTo),
+                "frametime"
+        );
+
+        assertEquals(5, value.integerValueOr(-1));
+        assertEquals(5.0, value.doubleValueOr(-1), 0);
+        assertEquals(Optional.of(5), value.integerValue());
+    }
+
+    @Test
+    public void integerValueOr_KeyMissingFromView_DefaultValue() {
+        ValueMetadataView.KeyedValue value = new ValueMetadataView.KeyedValue(
+                PropertiesMetadataView.EMPTY,
+                "frametime"
+        );
+
+        assertEquals(-1, value.integerValueOr(-1));
+        assertFalse(value.booleanValueOr(false));
+        assertFalse(value.stringValue().isPresent());
+    }
+
+    @Test
+    public void subView_SubViewInView_SameView() {
+        MetadataView subView = new PropertiesMetadataView("frametime", new PropertiesMetadataView.Value("5"));
+        MetadataView view = new PropertiesMetadataView("animation", new PropertiesMetadataView.Value(subView));
+
+        assertSame(subView, new ValueMetadataView.KeyedValue(view, "animation").subView().orElseThrow());
+    }
+
+}
\ No newline at end of file
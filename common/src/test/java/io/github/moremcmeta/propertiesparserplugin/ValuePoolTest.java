@@ -0,0 +1,168 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.propertiesparserplugin;
+
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link ValuePool}.
+ * @author soir20
+ */
+public final class ValuePoolTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void intern_NullTokens_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new ValuePool().intern(null, 0);
+    }
+
+    @Test
+    public void intern_EqualValues_SameInstance() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize("interpolate=true\nskip=true");
+        PropertiesMetadataView.Value first = pool.intern(tokens, 0);
+        PropertiesMetadataView.Value second = pool.intern(tokens, 1);
+
+        assertSame(first, second);
+        assertEquals("true", second.stringValue().orElseThrow());
+        assertEquals(1, pool.hits());
+        assertEquals(1, pool.misses());
+    }
+
+    @Test
+    public void intern_EqualValuesInDifferentTables_SameInstance() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        assertSame(pool.intern(tokenize("x=0"), 0), pool.intern(tokenize("duration=0"), 0));
+    }
+
+    @Test
+    public void intern_DifferentValues_DifferentInstances() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize("x=0\ny=1");
+        assertNotSame(pool.intern(tokens, 0), pool.intern(tokens, 1));
+        assertEquals(0, pool.hits());
+        assertEquals(2, pool.misses());
+    }
+
+    @Test
+    public void intern_LongValue_NotPooled() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        String value = "a".repeat(ValuePool.MAX_LENGTH + 1);
+        PropertiesTokens tokens = tokenize("from=" + value);
+
+        PropertiesMetadataView.Value first = pool.intern(tokens, 0);
+        assertEquals(value, first.stringValue().orElseThrow());
+        assertNotSame(first, pool.intern(tokens, 0));
+        assertEquals(0, pool.hits());
+        assertEquals(2, pool.misses());
+    }
+
+    @Test
+    public void intern_MaxLengthValue_Pooled() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize("from=" + "a".repeat(ValuePool.MAX_LENGTH));
+        assertSame(pool.intern(tokens, 0), pool.intern(tokens, 0));
+    }
+
+    @Test
+    public void intern_EmptyValue_Pooled() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize("x=\ny=");
+        PropertiesMetadataView.Value value = pool.intern(tokens, 0);
+
+        assertEquals("", value.stringValue().orElseThrow());
+        assertSame(value, pool.intern(tokens, 1));
+    }
+
+    @Test
+    public void intern_PoolFull_NewValuesNotPooled() throws IOException, InvalidMetadataException {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize(numberedProperties(ValuePool.MAX_SIZE + 1));
+        for (int entry = 0; entry < ValuePool.MAX_SIZE; entry++) {
+            pool.intern(tokens, entry);
+        }
+
+        assertNotSame(pool.intern(tokens, ValuePool.MAX_SIZE), pool.intern(tokens, ValuePool.MAX_SIZE));
+        assertSame(pool.intern(tokens, 0), pool.intern(tokens, 0));
+    }
+
+    @Test
+    public void intern_ConcurrentThreads_OneInstancePerValue() throws Exception {
+        ValuePool pool = new ValuePool();
+        PropertiesTokens tokens = tokenize(numberedProperties(500));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PropertiesMetadataView.Value[]>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(() -> {
+                    PropertiesMetadataView.Value[] interned = new PropertiesMetadataView.Value[500];
+                    for (int index = 0; index < interned.length; index++) {
+                        interned[index] = pool.intern(tokens, index);
+                    }
+
+                    return interned;
+                }));
+            }
+
+            PropertiesMetadataView.Value[] expected = results.get(0).get();
+            for (Future<PropertiesMetadataView.Value[]> result : results) {
+                PropertiesMetadataView.Value[] actual = result.get();
+                for (int index = 0; index < expected.length; index++) {
+                    assertSame(expected[index], actual[index]);
+                }
+            }
+
+            assertEquals(500, pool.misses());
+            assertEquals(2000, pool.hits() + pool.misses());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String numberedProperties(int count) {
+        StringBuilder properties = new StringBuilder();
+        for (int index = 0; index < count; index++) {
+            properties.append("key").append(index).append('=').append(index).append('\n');
+        }
+
+        return properties.toString();
+    }
+
+    private static PropertiesTokens tokenize(String properties) throws IOException, InvalidMetadataException {
+        return PropertiesReader.tokenize(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+}
\ No newline at end of file